@@ -0,0 +1,360 @@
+package dbtransformergui;
+
+import dbtransfromer.DBParameters;
+import dbtransfromer.DBTransformerImpl;
+import dbtransfromer.ExtractionStatistics;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import settingtools.XMLReader;
+
+/**
+ * Headless runner of transformations. Every setting file (saved by GUI, see {@link XMLReader})
+ * is one job, jobs are run by {@link JobManager} with given number of threads and limit
+ * of jobs per database. Setting file can contain element "password", otherwise password
+ * is taken from option -password or environment variable DBTRANSFORMER_PASSWORD.
+ * <p>
+ * Usage: BatchRunner [-threads n] [-perDatabase n] [-password password] [-timeout seconds] setting.xml...
+ * <p>
+ * For every job one tab separated line is printed into standard output when job ends:
+ * job, setting file, status (OK, FAILED, CANCELLED), time in queue and time of run
+ * in milliseconds, triples, rows (-1 if not measured), written bytes, output and message.
+ * Exit code is 0 if all jobs were successful, 1 if some job failed, 2 for invalid arguments
+ * and 3 if timeout expired and unfinished jobs were cancelled.
+ * Last Modified 17.10.2026
+ */
+public class BatchRunner {
+
+    /**
+     * Exit code of successful run
+     */
+    public static final int EXIT_OK = 0;
+    /**
+     * Exit code of run with failed job
+     */
+    public static final int EXIT_FAILED = 1;
+    /**
+     * Exit code of invalid arguments
+     */
+    public static final int EXIT_USAGE = 2;
+    /**
+     * Exit code of run cancelled by timeout
+     */
+    public static final int EXIT_TIMEOUT = 3;
+    /**
+     * Environment variable with database password
+     */
+    public static final String PASSWORD_VARIABLE = "DBTRANSFORMER_PASSWORD";
+    private static final String USAGE = "Usage: BatchRunner [-threads n] [-perDatabase n] [-password password] [-timeout seconds] setting.xml...";
+    private final JobManager jobManager;
+    private final PrintStream out;
+    private String password = null;
+    private final List<Result> results = new ArrayList<Result>();
+
+    /**
+     * Creates new runner
+     * @param threads number of jobs running at once
+     * @param perDatabase number of jobs running at once on one database
+     * @param out stream for result lines
+     */
+    public BatchRunner(int threads, int perDatabase, PrintStream out) {
+        this.jobManager = new JobManager(threads);
+        this.jobManager.setMaxPerDatabase(perDatabase);
+        this.out = out;
+    }
+
+    /**
+     * Runs transformations from command line and exits with exit code of run
+     * @param args arguments, see description of class
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perDatabase = 1;
+        long timeout = 0;
+        String password = System.getenv(PASSWORD_VARIABLE);
+        List<File> settings = new ArrayList<File>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("-")) {
+                    if (i + 1 == args.length) {
+                        throw new IllegalArgumentException("Missing value of " + args[i]);
+                    }
+                    String value = args[++i];
+                    if (args[i - 1].equals("-threads")) {
+                        threads = Integer.parseInt(value);
+                    } else if (args[i - 1].equals("-perDatabase")) {
+                        perDatabase = Integer.parseInt(value);
+                    } else if (args[i - 1].equals("-password")) {
+                        password = value;
+                    } else if (args[i - 1].equals("-timeout")) {
+                        timeout = Long.parseLong(value);
+                    } else {
+                        throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                    }
+                } else {
+                    settings.add(new File(args[i]));
+                }
+            }
+            if (settings.isEmpty()) {
+                throw new IllegalArgumentException("No setting file");
+            }
+            BatchRunner runner = new BatchRunner(threads, perDatabase, System.out);
+            runner.setPassword(password);
+            System.exit(runner.run(settings, timeout));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException too
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+        } catch (InterruptedException e) {
+            System.err.println("Interrupted");
+            System.exit(EXIT_TIMEOUT);
+        }
+    }
+
+    /**
+     * Runs job for every setting file and waits until all jobs end
+     * @param settings setting files
+     * @param timeout maximal time of run in seconds, unfinished jobs are cancelled after it, 0 for no limit
+     * @return exit code of run
+     * @throws InterruptedException if waiting was interrupted
+     */
+    public int run(List<File> settings, long timeout) throws InterruptedException {
+        final CountDownLatch remaining = new CountDownLatch(settings.size());
+        jobManager.addListener(new JobManager.Listener() {
+
+            public void stateChanged(JobManager.Job job) {
+                Result result = findResult(job);
+                if (result == null) {
+                    return;
+                }
+                if (job.getState() == JobManager.STATE_RUNNING) {
+                    result.started = System.currentTimeMillis();
+                } else if (job.getState() != JobManager.STATE_QUEUED) {
+                    result.finished(job);
+                    print(result);
+                    remaining.countDown();
+                }
+            }
+        });
+        out.println("#job\tsetting\tstatus\tqueueMs\trunMs\ttriples\trows\tbytes\toutput\tmessage");
+        out.flush();
+        int number = 0;
+        for (File file : settings) {
+            Result result = new Result(Integer.toString(++number), file);
+            XMLReader reader = new XMLReader(file.getPath());
+            try {
+                reader.parse();
+            } catch (Exception e) {
+                result.status = "FAILED";
+                result.message = "Invalid setting: " + e.getMessage();
+                print(result);
+                remaining.countDown();
+                synchronized (results) {
+                    results.add(result);
+                }
+                continue;
+            }
+            result.output = reader.getOutputPath();
+            synchronized (results) {
+                results.add(result);
+            }
+            result.submitted = System.currentTimeMillis();
+            jobManager.submit(result.name, reader.getJdbc(), new Transformation(reader, result));
+        }
+        boolean timedOut = false;
+        if (timeout > 0) {
+            timedOut = !remaining.await(timeout, TimeUnit.SECONDS);
+            if (timedOut) {
+                jobManager.shutdown();
+                remaining.await();
+            }
+        } else {
+            remaining.await();
+        }
+        jobManager.shutdown();
+        if (timedOut) {
+            return EXIT_TIMEOUT;
+        }
+        synchronized (results) {
+            for (Result result : results) {
+                if (!result.status.equals("OK")) {
+                    return EXIT_FAILED;
+                }
+            }
+        }
+        return EXIT_OK;
+    }
+
+    private Result findResult(JobManager.Job job) {
+        synchronized (results) {
+            for (Result result : results) {
+                if (result.name.equals(job.getName())) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private synchronized void print(Result result) {
+        out.println(result.name + "\t" + result.setting + "\t" + result.status + "\t" + result.queueTime()
+                + "\t" + result.runTime() + "\t" + result.triples + "\t" + result.rows + "\t" + result.bytes
+                + "\t" + clean(result.output) + "\t" + clean(result.message));
+        out.flush();
+    }
+
+    /**
+     * Removes tabs and line breaks from field of result line
+     */
+    private static String clean(String field) {
+        return field == null ? "" : field.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Returns output type of transformer for index of format in setting file (and GUI)
+     * @param dbtransformer transformer
+     * @param format index of format
+     * @return output type, TYPE_UNKNOWN for invalid index
+     */
+    static int outputType(DBTransformerImpl dbtransformer, int format) {
+        switch (format) {
+            case 0:
+                return dbtransformer.TYPE_RDFXML;
+            case 1:
+                return dbtransformer.TYPE_OWLXML;
+            case 2:
+                return dbtransformer.TYPE_OWLFUNCTIONAL;
+            case 3:
+                return dbtransformer.TYPE_TURTLE;
+            case 4:
+                return dbtransformer.TYPE_KRSS2;
+            case 5:
+                return dbtransformer.TYPE_LATEX;
+            case 6:
+                return dbtransformer.TYPE_MANCHESTER;
+            case 7:
+                return dbtransformer.TYPE_NTRIPLES;
+            case 8:
+                return dbtransformer.TYPE_BINARY;
+            default:
+                return dbtransformer.TYPE_UNKNOWN;
+        }
+    }
+
+    /**
+     * returns password used for settings without password
+     * @return password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * set password used for settings without password
+     * @param password database password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Transformation of one setting file
+     */
+    private class Transformation implements JobManager.Task {
+
+        private final XMLReader setting;
+        private final Result result;
+
+        Transformation(XMLReader setting, Result result) {
+            this.setting = setting;
+            this.result = result;
+        }
+
+        public boolean run(JobManager.Job job) throws Exception {
+            DBParameters dbparam = new DBParameters();
+            dbparam.setUsername(setting.getUser());
+            dbparam.setPassword(setting.getPassword() != null ? setting.getPassword() : password);
+            dbparam.setJdbc(setting.getJdbc());
+            dbparam.setDriver(setting.getDriver());
+            DBTransformerImpl dbtransformer = new DBTransformerImpl();
+            dbtransformer.setOutput(setting.getOutputPath());
+            // statistics of parallel jobs are registered under their own names
+            dbtransformer.setJmxName("batch " + result.name + " " + result.setting);
+            // cancelled jobs cancel their running queries
+            dbtransformer.setMeteredConnections(true);
+            if (setting.getBaseUri() != null) {
+                dbtransformer.setBase(setting.getBaseUri());
+            }
+            result.transformer = dbtransformer;
+            int type = outputType(dbtransformer, setting.getFormat());
+            if (type == dbtransformer.TYPE_UNKNOWN) {
+                throw new IllegalArgumentException("Unknown format " + setting.getFormat());
+            }
+            return dbtransformer.export(type, dbparam, setting.getBaseUri());
+        }
+    }
+
+    /**
+     * Result of one job
+     */
+    private static class Result {
+
+        private final String name;
+        private final String setting;
+        private long submitted;
+        private long started = 0;
+        private long ended = 0;
+        private String status = "FAILED";
+        private String output = null;
+        private String message = null;
+        private long triples = 0;
+        private long rows = -1;
+        private long bytes = 0;
+        private volatile DBTransformerImpl transformer;
+
+        Result(String name, File setting) {
+            this.name = name;
+            this.setting = setting.getPath();
+        }
+
+        /**
+         * Takes state and statistics of ended job
+         */
+        void finished(JobManager.Job job) {
+            ended = System.currentTimeMillis();
+            switch (job.getState()) {
+                case JobManager.STATE_FINISHED:
+                    status = "OK";
+                    break;
+                case JobManager.STATE_CANCELLED:
+                    status = "CANCELLED";
+                    break;
+                default:
+                    status = "FAILED";
+                    if (job.getError() != null) {
+                        message = job.getError().toString();
+                    } else {
+                        message = "Error during saving ontology";
+                    }
+            }
+            ExtractionStatistics statistics = transformer == null ? null : transformer.getStatistics();
+            if (statistics != null) {
+                triples = statistics.getTriples();
+                rows = statistics.getRows();
+                bytes = statistics.getBytesWritten();
+            }
+        }
+
+        long queueTime() {
+            return started == 0 ? (ended == 0 ? 0 : ended - submitted) : started - submitted;
+        }
+
+        long runTime() {
+            return started == 0 || ended == 0 ? 0 : ended - started;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package dbtransformergui;
+
+import dbtransfromer.TransformationJob;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Instance of this class runs transformation jobs of GUI by bounded number of worker threads.
+ * Submitted jobs wait in queue until worker is free and number of running jobs on their
+ * database is below per database limit, so repeated clicks don't start many full dumps
+ * against the same server at once and memory used by running transformations stays bounded.
+ * Queued jobs are started in order of submission, job of another database can overtake
+ * jobs waiting for busy database. Listener is notified about every change of state of job.
+ * Last Modified 17.10.2026
+ */
+public class JobManager {
+
+    /**
+     * Job waits in queue
+     */
+    public static final int STATE_QUEUED = 0;
+    /**
+     * Job is running
+     */
+    public static final int STATE_RUNNING = 1;
+    /**
+     * Job finished successfully
+     */
+    public static final int STATE_FINISHED = 2;
+    /**
+     * Job failed
+     */
+    public static final int STATE_FAILED = 3;
+    /**
+     * Job was cancelled
+     */
+    public static final int STATE_CANCELLED = 4;
+    private static final String[] STATE_NAMES = {"queued", "running", "finished", "failed", "cancelled"};
+    private final ExecutorService executor;
+    private final int maxWorkers;
+    private int maxPerDatabase = 1;
+    private final LinkedList<Job> queue = new LinkedList<Job>();
+    private final Map<String, Integer> runningPerDatabase = new HashMap<String, Integer>();
+    private final List<Job> running = new ArrayList<Job>();
+    private final List<Listener> listeners = new ArrayList<Listener>();
+
+    /**
+     * Creates new job manager
+     * @param maxWorkers maximal number of jobs running at once
+     */
+    public JobManager(int maxWorkers) {
+        if (maxWorkers <= 0) {
+            throw new IllegalArgumentException("Number of workers must be positive");
+        }
+        this.maxWorkers = maxWorkers;
+        this.executor = Executors.newFixedThreadPool(maxWorkers, new ThreadFactory() {
+
+            private int number = 0;
+
+            public synchronized Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "DBTransformer job worker " + (++number));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Submits transformation into queue
+     * @param name name of job
+     * @param database database of transformation (JDBC URL), used for per database limit
+     * @param task transformation
+     * @return queued job
+     */
+    public Job submit(String name, String database, Task task) {
+        Job job = new Job(name, database, task);
+        synchronized (this) {
+            queue.add(job);
+        }
+        fireStateChanged(job);
+        schedule();
+        return job;
+    }
+
+    /**
+     * Starts queued jobs while there are free workers and their databases are below limit
+     */
+    private void schedule() {
+        List<Job> started = new ArrayList<Job>();
+        synchronized (this) {
+            Iterator<Job> it = queue.iterator();
+            while (it.hasNext() && running.size() < maxWorkers) {
+                Job job = it.next();
+                Integer count = runningPerDatabase.get(job.database);
+                if (count != null && count.intValue() >= maxPerDatabase) {
+                    continue;
+                }
+                it.remove();
+                running.add(job);
+                runningPerDatabase.put(job.database, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+                job.state = STATE_RUNNING;
+                started.add(job);
+            }
+        }
+        for (final Job job : started) {
+            fireStateChanged(job);
+            executor.execute(new Runnable() {
+
+                public void run() {
+                    runJob(job);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs job in worker thread and starts next queued jobs
+     */
+    private void runJob(Job job) {
+        try {
+            job.transformation.run();
+        } finally {
+            int state;
+            Throwable error = null;
+            if (job.transformation.isCancelled()) {
+                state = STATE_CANCELLED;
+            } else {
+                state = STATE_FINISHED;
+                try {
+                    if (!job.transformation.get().booleanValue()) {
+                        state = STATE_FAILED;
+                    }
+                } catch (ExecutionException e) {
+                    state = STATE_FAILED;
+                    error = e.getCause();
+                } catch (InterruptedException e) {
+                    // job is done, get() doesn't wait
+                    state = STATE_FAILED;
+                }
+            }
+            synchronized (this) {
+                running.remove(job);
+                int count = runningPerDatabase.get(job.database).intValue();
+                if (count > 1) {
+                    runningPerDatabase.put(job.database, Integer.valueOf(count - 1));
+                } else {
+                    runningPerDatabase.remove(job.database);
+                }
+                job.state = state;
+                job.error = error;
+            }
+            fireStateChanged(job);
+            schedule();
+        }
+    }
+
+    /**
+     * Cancels job, queued job is removed from queue, running job is stopped
+     * @param job job of this manager
+     * @return false if job is finished already
+     */
+    public boolean cancel(Job job) {
+        boolean queued;
+        synchronized (this) {
+            queued = queue.remove(job);
+            if (queued) {
+                job.state = STATE_CANCELLED;
+            }
+        }
+        if (!queued) {
+            // statements are cancelled outside of lock, driver can wait for database
+            return job.transformation.cancel(true);
+        }
+        job.transformation.cancel(false);
+        fireStateChanged(job);
+        return true;
+    }
+
+    /**
+     * Cancels all queued and running jobs and stops worker threads
+     */
+    public void shutdown() {
+        List<Job> jobs;
+        synchronized (this) {
+            jobs = new ArrayList<Job>(queue);
+            jobs.addAll(running);
+        }
+        for (Job job : jobs) {
+            cancel(job);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * returns number of jobs waiting in queue
+     * @return number of queued jobs
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * returns number of running jobs
+     * @return number of running jobs
+     */
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * returns maximal number of jobs running at once
+     * @return maximal number of workers
+     */
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    /**
+     * returns maximal number of jobs running at once on one database
+     * @return maximal number of jobs per database
+     */
+    public synchronized int getMaxPerDatabase() {
+        return maxPerDatabase;
+    }
+
+    /**
+     * set maximal number of jobs running at once on one database
+     * @param maxPerDatabase maximal number of jobs per database
+     */
+    public void setMaxPerDatabase(int maxPerDatabase) {
+        if (maxPerDatabase <= 0) {
+            throw new IllegalArgumentException("Number of jobs per database must be positive");
+        }
+        synchronized (this) {
+            this.maxPerDatabase = maxPerDatabase;
+        }
+        schedule();
+    }
+
+    /**
+     * Adds listener of states of jobs, listener is called from thread changing the state
+     * @param listener listener
+     */
+    public void addListener(Listener listener) {
+        synchronized (listeners) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes listener of states of jobs
+     * @param listener listener
+     */
+    public void removeListener(Listener listener) {
+        synchronized (listeners) {
+            listeners.remove(listener);
+        }
+    }
+
+    private void fireStateChanged(Job job) {
+        List<Listener> copy;
+        synchronized (listeners) {
+            copy = new ArrayList<Listener>(listeners);
+        }
+        for (Listener listener : copy) {
+            listener.stateChanged(job);
+        }
+    }
+
+    /**
+     * Transformation run by job manager
+     */
+    public interface Task {
+
+        /**
+         * Runs transformation in worker thread
+         * @param job job of transformation, it can be checked for cancellation
+         * @return true if transformation was successful
+         * @throws Exception if transformation failed
+         */
+        public boolean run(Job job) throws Exception;
+    }
+
+    /**
+     * Listener of states of jobs
+     */
+    public interface Listener {
+
+        /**
+         * Called when job is queued, started, finished, failed or cancelled
+         * @param job job with new state
+         */
+        public void stateChanged(Job job);
+    }
+
+    /**
+     * Transformation submitted to job manager
+     */
+    public class Job {
+
+        private final String name;
+        private final String database;
+        private final TransformationJob transformation;
+        private int state = STATE_QUEUED;
+        private Throwable error = null;
+
+        Job(String name, String database, final Task task) {
+            this.name = name;
+            this.database = database;
+            this.transformation = new TransformationJob(name, new Callable<Boolean>() {
+
+                public Boolean call() throws Exception {
+                    return Boolean.valueOf(task.run(Job.this));
+                }
+            });
+        }
+
+        /**
+         * returns name of job
+         * @return name of job
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * returns database of job
+         * @return JDBC URL of database
+         */
+        public String getDatabase() {
+            return database;
+        }
+
+        /**
+         * returns state of job
+         * @return one of STATE_* constants
+         */
+        public int getState() {
+            synchronized (JobManager.this) {
+                return state;
+            }
+        }
+
+        /**
+         * returns name of state of job
+         * @return name of state
+         */
+        public String getStateName() {
+            return STATE_NAMES[getState()];
+        }
+
+        /**
+         * returns position of job in queue
+         * @return number of jobs waiting before this job or -1 if job isn't queued
+         */
+        public int getQueuePosition() {
+            synchronized (JobManager.this) {
+                return queue.indexOf(this);
+            }
+        }
+
+        /**
+         * returns exception thrown by failed transformation
+         * @return exception or null
+         */
+        public Throwable getError() {
+            synchronized (JobManager.this) {
+                return error;
+            }
+        }
+
+        /**
+         * Cancels job
+         * @return false if job is finished already
+         */
+        public boolean cancel() {
+            return JobManager.this.cancel(this);
+        }
+
+        /**
+         * Check if job is cancelled, running transformation should stop when it is
+         * @return true if job is cancelled
+         */
+        public boolean isCancelled() {
+            return transformation.isCancelled();
+        }
+
+        /**
+         * returns cancellable transformation of job
+         * @return transformation job
+         */
+        public TransformationJob getTransformation() {
+            return transformation;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + getStateName() + " (" + database + ")";
+        }
+    }
+}
@@ -5,10 +5,20 @@ import settingtools.XMLReader;
 import settingtools.XMLWriter;
 import dbtransfromer.DBTransformerImpl;
 import dbtransfromer.DBTransformerImpl.DumpParameterException;
+import dbtransfromer.ProgressListener;
+import dbtransfromer.SpillBuffer;
+import dbtransfromer.TransformationProgress;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
 import javax.swing.JFileChooser;
+import javax.swing.JMenuItem;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileFilter;
 import javax.xml.stream.XMLStreamException;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -32,6 +42,8 @@ public class MainForm extends javax.swing.JFrame {
     private final String DB_DRIVER_POSTGRESQL = "org.postgresql.Driver";
     private final String DB_DRIVER_MYSQL = "com.mysql.jdbc.Driver";
     private final String DB_DRIVER_MSSQL = "com.microsoft.sqlserver.jdbc.SQLServerDriver";
+    private final int MAX_RUNNING_JOBS = 2;
+    private final int MAX_JOBS_PER_DATABASE = 1;
     private String jdbc;
     private String username;
     private String password;
@@ -46,7 +58,8 @@ public class MainForm extends javax.swing.JFrame {
     private boolean defaultBaseUri;
     private XMLWriter xmlwriter;
     private XMLReader xmlreader;
-    private byte[] rdfByteArray;
+    private JobManager jobManager;
+    private final Map<JobManager.Job, JMenuItem> jobMenuItems = new HashMap<JobManager.Job, JMenuItem>();
 
     /**
      * Creates new form MainForm
@@ -54,6 +67,19 @@ public class MainForm extends javax.swing.JFrame {
      */
     public MainForm(DBTransformerImpl dbtransformer) {
         threadID = 0;
+        jobManager = new JobManager(MAX_RUNNING_JOBS);
+        jobManager.setMaxPerDatabase(MAX_JOBS_PER_DATABASE);
+        jobManager.addListener(new JobManager.Listener() {
+
+            public void stateChanged(final JobManager.Job job) {
+                SwingUtilities.invokeLater(new Runnable() {
+
+                    public void run() {
+                        showJobState(job);
+                    }
+                });
+            }
+        });
         initComponents();
         defaultBaseUri = defaultBaseUriCheckBox.isSelected();
         setBaseFieldVisibility(defaultBaseUri);
@@ -117,6 +143,7 @@ public class MainForm extends javax.swing.JFrame {
         openMenuItem = new javax.swing.JMenuItem();
         saveMenuItem = new javax.swing.JMenuItem();
         exitMenuItem = new javax.swing.JMenuItem();
+        jobsMenu = new javax.swing.JMenu();
         helpMenu = new javax.swing.JMenu();
         helpMenuItem = new javax.swing.JMenuItem();
         aboutMenuItem = new javax.swing.JMenuItem();
@@ -380,7 +407,7 @@ public class MainForm extends javax.swing.JFrame {
             }
         });
 
-        outputFormatComboBox.setModel(new javax.swing.DefaultComboBoxModel(new String[] { "RDF / XML", "OWL / XML", "OWL Funkcional Syntax", "TURLTLE", "KRSS2", "Latex", "Manchester OWL Syntax" }));
+        outputFormatComboBox.setModel(new javax.swing.DefaultComboBoxModel(new String[] { "RDF / XML", "OWL / XML", "OWL Funkcional Syntax", "TURLTLE", "KRSS2", "Latex", "Manchester OWL Syntax", "N-Triples", "Binary RDF" }));
 
         baseUriTextField.setEnabled(false);
 
@@ -483,6 +510,10 @@ public class MainForm extends javax.swing.JFrame {
 
         menuMenuBar.add(fileMenu);
 
+        jobsMenu.setText("Jobs");
+        jobsMenu.setEnabled(false);
+        menuMenuBar.add(jobsMenu);
+
         helpMenu.setText("Help");
 
         helpMenuItem.setText("Help");
@@ -537,10 +568,12 @@ public class MainForm extends javax.swing.JFrame {
     }//GEN-LAST:event_exitMenuItemActionPerformed
 
     private void outputTransformButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_outputTransformButtonActionPerformed
+        getParameters();
+        if (!checkParameters()) {
+            return;
+        }
         threadID++;
-        messageTextField.append(threadID + ": Process started, please wait...\n");
-        Transformation doTransformation = new Transformation(Integer.toString(threadID));
-        doTransformation.start();
+        jobManager.submit(Integer.toString(threadID), jdbc, new Transformation());
 
 
     }//GEN-LAST:event_outputTransformButtonActionPerformed
@@ -733,6 +766,7 @@ public class MainForm extends javax.swing.JFrame {
     private javax.swing.JScrollPane jScrollPane2;
     private javax.swing.JScrollPane jScrollPane3;
     private javax.swing.JTextArea jTextArea1;
+    private javax.swing.JMenu jobsMenu;
     private javax.swing.JMenuBar menuMenuBar;
     private javax.swing.JTextArea messageTextField;
     private javax.swing.JFileChooser openFileChooser;
@@ -775,79 +809,150 @@ public class MainForm extends javax.swing.JFrame {
     }
 
     /**
-     * Instance provides transformation process in separate thread
+     * Shows state of job in jobs menu and in messages. Queued and running jobs have
+     * menu item cancelling them, item is removed when job ends.
+     * @param job job with changed state
      */
-    private class Transformation extends Thread {
+    private void showJobState(final JobManager.Job job) {
+        JMenuItem item = jobMenuItems.get(job);
+        switch (job.getState()) {
+            case JobManager.STATE_QUEUED:
+                messageTextField.append(job.getName() + ": Process queued (" + jobManager.getRunningCount() + " running, "
+                        + jobManager.getQueuedCount() + " queued), please wait...\n");
+                break;
+            case JobManager.STATE_RUNNING:
+                messageTextField.append(job.getName() + ": Process started, please wait...\n");
+                break;
+            case JobManager.STATE_CANCELLED:
+                messageTextField.append(job.getName() + ": Process cancelled, partial output was deleted.\n");
+                break;
+            case JobManager.STATE_FAILED:
+                if (job.getError() != null) {
+                    messageTextField.append(job.getName() + ": Transformation error!\n");
+                }
+                break;
+            default:
+        }
+        if (job.getState() == JobManager.STATE_QUEUED || job.getState() == JobManager.STATE_RUNNING) {
+            if (item == null) {
+                item = new JMenuItem();
+                item.addActionListener(new ActionListener() {
+
+                    public void actionPerformed(ActionEvent e) {
+                        boolean running = job.getState() == JobManager.STATE_RUNNING;
+                        if (job.cancel() && running) {
+                            messageTextField.append(job.getName() + ": Cancelling process..\n");
+                        }
+                    }
+                });
+                jobMenuItems.put(job, item);
+                jobsMenu.add(item);
+            }
+            item.setText("Cancel " + job.getName() + " (" + job.getStateName() + ", " + job.getDatabase() + ")");
+        } else if (item != null) {
+            jobsMenu.remove(item);
+            jobMenuItems.remove(job);
+        }
+        jobsMenu.setEnabled(!jobMenuItems.isEmpty());
+    }
+
+    /**
+     * Instance provides transformation process run by job manager. Parameters
+     * of transformation are taken from form when job is submitted.
+     */
+    private class Transformation implements JobManager.Task {
 
         private String name;
         int type;
+        private final int format;
+        private final String username;
+        private final String password;
+        private final String jdbc;
+        private final String driver;
+        private final String output;
+        private final String baseUri;
+        private final boolean defaultBaseUri;
 
         /**
-         * Creates new transformation thread
-         * @param name thread name
+         * Creates new transformation with current parameters of form
          */
-        public Transformation(String name) {
-            super(name);
-            this.name = name;
-
+        public Transformation() {
+            this.format = outputFormatComboBox.getSelectedIndex();
+            this.username = MainForm.this.username;
+            this.password = MainForm.this.password;
+            this.jdbc = MainForm.this.jdbc;
+            this.driver = MainForm.this.driver;
+            this.output = MainForm.this.output;
+            this.baseUri = MainForm.this.baseUri;
+            this.defaultBaseUri = MainForm.this.defaultBaseUri;
         }
 
         /**
-         * Threads run process - choose selected output type, sets rest of parameters
-         * and run transformation process
+         * Choose selected output type, sets rest of parameters and run transformation process
+         * @param job job of transformation
+         * @return true if transformation was successful
          */
-        @Override
-        public void run() {
+        public boolean run(JobManager.Job job) {
+            name = job.getName();
             DBParameters dbparam = new DBParameters();
             DBTransformerImpl dbtransformer = new DBTransformerImpl();
+            // cancelling of job cancels running queries and progress shows exact rows
+            dbtransformer.setMeteredConnections(true);
+            dbtransformer.setProgressListener(new ProgressListener() {
+
+                public void progress(final TransformationProgress progress) {
+                    SwingUtilities.invokeLater(new Runnable() {
+
+                        public void run() {
+                            outputTransformStatusLabel.setText(progress.isFinished() ? "   " : name + ": " + progress);
+                        }
+                    });
+                }
+            });
             try {
-                type = outputFormatComboBox.getSelectedIndex();
-                switch (outputFormatComboBox.getSelectedIndex()) {
-                    case 0:
-                        type = dbtransformer.TYPE_RDFXML;
-                        break;
-                    case 1:
-                        type = dbtransformer.TYPE_OWLXML;
-                        break;
-                    case 2:
-                        type = dbtransformer.TYPE_OWLFUNCTIONAL;
-                        break;
-                    case 3:
-                        type = dbtransformer.TYPE_TURTLE;
-                        break;
-                    case 4:
-                        type = dbtransformer.TYPE_KRSS2;
-                        break;
-                    case 5:
-                        type = dbtransformer.TYPE_LATEX;
-                        break;
-                    case 6:
-                        type = dbtransformer.TYPE_MANCHESTER;
-                        break;
-                    default:
-                        type = dbtransformer.TYPE_UNKNOWN;
+                type = BatchRunner.outputType(dbtransformer, format);
+                dbparam.setUsername(username);
+                dbparam.setPassword(password);
+                dbparam.setJdbc(jdbc);
+                dbparam.setDriver(driver);
+                dbtransformer.setOutput(output);
+                if (!defaultBaseUri) {
+                    dbtransformer.setBase(baseUri);
                 }
-                getParameters();
-                if (checkParameters()) {
-                    dbparam.setUsername(username);
-                    dbparam.setPassword(password);
-                    dbparam.setJdbc(jdbc);
-                    dbparam.setDriver(driver);
-                    dbtransformer.setOutput(output);
-                    if (!defaultBaseUri) {
-                        dbtransformer.setBase(baseUri);
+                if (dbtransformer.isDirectType(type)) {
+                    messageTextField.append(name + ": RDB data extract started, RDF model writing directly into selected format..\n");
+                    if (dbtransformer.export(type, dbparam, baseUri)) {
+                        messageTextField.append(name + ": Process Completed (" + dbtransformer.getStatistics() + ").\n");
+                        return true;
                     }
+                    messageTextField.append(name + ": Error durig saving ontology!\n");
+                } else {
                     messageTextField.append(name + ": RDB data extract started..\n");
-                    rdfByteArray = dbtransformer.transform(dbparam,baseUri);
-                    messageTextField.append(name + ": RDB data extract finished, RDF model was created..\n");
-                    messageTextField.append(name + ": RDF model writing into selected format..\n");
-                    if(dbtransformer.convert(type, rdfByteArray)) messageTextField.append(name + ": Process Completed.\n");
-                    else messageTextField.append(name + ": Error durig saving ontology!\n");
+                    SpillBuffer rdf = dbtransformer.transformToBuffer(dbparam,baseUri);
+                    try {
+                        messageTextField.append(name + ": RDB data extract finished, RDF model was created (" + dbtransformer.getStatistics() + ")..\n");
+                        if (job.isCancelled()) {
+                            return false;
+                        }
+                        messageTextField.append(name + ": RDF model writing into selected format..\n");
+                        if (dbtransformer.convert(type, rdf)) {
+                            messageTextField.append(name + ": Process Completed.\n");
+                            return true;
+                        }
+                    } finally {
+                        rdf.delete();
+                    }
+                    messageTextField.append(name + ": Error durig saving ontology!\n");
                 }
             } catch (UnsupportedEncodingException ex) {
                 messageTextField.append(name + ": Invalid encoding!\n");
             } catch (FileNotFoundException ex) {
                 messageTextField.append(name + ": Invalid path!\n");
+            } catch (IOException ex) {
+                // cancelled job is reported by job manager
+                if (!job.isCancelled()) {
+                    messageTextField.append(name + ": Error durig writing output!\n");
+                }
             } catch (OWLOntologyStorageException ex) {
                 messageTextField.append(name + ": Error durig saving ontology!\n");
             } catch (OWLOntologyCreationException ex) {
@@ -855,6 +960,7 @@ public class MainForm extends javax.swing.JFrame {
             } catch (DumpParameterException ex) {
                 messageTextField.append(name + ": Transformation error!\n");
             }
+            return false;
         }
     }
 
@@ -14,6 +14,7 @@ public class XMLReader {
     private String path;
     private String jdbc;
     private String user;
+    private String password;
     private String driver;
     private String outputPath;
     private String baseUri;
@@ -45,6 +46,8 @@ public class XMLReader {
                     jdbc = r.getElementText().trim();
                 } else if (r.getLocalName().equals("user") == true) {
                     user = r.getElementText().trim();
+                } else if (r.getLocalName().equals("password") == true) {
+                    password = r.getElementText();
                 } else if (r.getLocalName().equals("driver") == true) {
                     driver = r.getElementText().trim();
                 } else if (r.getLocalName().equals("outputPath") == true) {
@@ -106,4 +109,13 @@ public class XMLReader {
     public String getUser() {
         return user;
     }
+
+    /**
+     * Get databse password attribute, GUI doesn't save password, it can be added
+     * into setting file for batch runs
+     * @return password databse password or null if it isn't in setting file
+     */
+    public String getPassword() {
+        return password;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.shared.WrappedIOException;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Instance of this class reads triples written by {@link BinaryRDFSink}. Triples are
+ * decoded block by block, so only one block and dictionary are held in memory.
+ * Reader can be used as iterator, I/O errors are then thrown as WrappedIOException.
+ * Last Modified 17.10.2026
+ */
+public class BinaryRDFReader implements Iterator<Triple> {
+
+    private final DataInputStream in;
+    private final Map<String, String> prefixes = new LinkedHashMap<String, String>();
+    private final List<Object> dictionary = new ArrayList<Object>();
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[0];
+    private byte[] block = new byte[0];
+    private int position = 0;
+    private int remaining = 0;
+    private boolean finished = false;
+    private Triple next;
+
+    /**
+     * Creates new reader and reads header of binary RDF
+     * @param in input stream, it is closed by {@link #close()}
+     * @throws IOException if stream doesn't contain binary RDF
+     */
+    public BinaryRDFReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        byte[] magic = new byte[BinaryRDFSink.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, BinaryRDFSink.MAGIC)) {
+            throw new IOException("Input isn't binary RDF");
+        }
+        int version = readNumber(this.in);
+        if (version != BinaryRDFSink.VERSION) {
+            throw new IOException("Unsupported version of binary RDF: " + version);
+        }
+        int count = readNumber(this.in);
+        for (int i = 0; i < count; i++) {
+            String prefix = readString(this.in);
+            prefixes.put(prefix, readString(this.in));
+        }
+        dictionary.add(null);
+    }
+
+    /**
+     * Returns namespace prefixes stored in file
+     * @return map prefix -> namespace URI
+     */
+    public Map<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Reads next triple
+     * @return triple or null if there are no more triples
+     * @throws IOException if error during reading happened or data are corrupted
+     */
+    public Triple read() throws IOException {
+        if (next != null) {
+            Triple triple = next;
+            next = null;
+            return triple;
+        }
+        while (remaining == 0) {
+            if (finished || !readBlock()) {
+                return null;
+            }
+        }
+        remaining--;
+        return Triple.create(node(blockNumber()), node(blockNumber()), node(blockNumber()));
+    }
+
+    /**
+     * Passes all remaining triples into sink
+     * @param sink consumer of triples
+     * @return number of triples
+     * @throws IOException if error during reading or writing happened
+     */
+    public long readAll(TripleSink sink) throws IOException {
+        long count = 0;
+        sink.start(prefixes);
+        for (Triple triple = read(); triple != null; triple = read()) {
+            sink.add(triple);
+            count++;
+        }
+        sink.finish();
+        return count;
+    }
+
+    /**
+     * Adds all remaining triples into graph
+     * @param graph target graph
+     * @return number of triples
+     * @throws IOException if error during reading happened
+     */
+    public long readAll(Graph graph) throws IOException {
+        long count = 0;
+        for (Triple triple = read(); triple != null; triple = read()) {
+            graph.add(triple);
+            count++;
+        }
+        return count;
+    }
+
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new WrappedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    public Triple next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Triple triple = next;
+        next = null;
+        return triple;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Binary RDF is read only");
+    }
+
+    /**
+     * Closes underlying stream
+     * @throws IOException if stream can't be closed
+     */
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    /**
+     * Reads and decompresses next block and its dictionary entries
+     * @return false if end mark was read
+     */
+    private boolean readBlock() throws IOException {
+        int length = readNumber(in);
+        if (length == 0) {
+            finished = true;
+            return false;
+        }
+        int compressedLength = readNumber(in);
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        if (block.length < length) {
+            block = new byte[length];
+        }
+        in.readFully(compressed, 0, compressedLength);
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int n = inflater.inflate(block, inflated, length - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != length) {
+                throw new IOException("Corrupted block of binary RDF");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted block of binary RDF: " + e.getMessage());
+        }
+        position = 0;
+        if (block[position++] != 0) {
+            dictionary.clear();
+            dictionary.add(null);
+        }
+        int entries = blockNumber();
+        for (int i = 0; i < entries; i++) {
+            dictionary.add(readEntry());
+        }
+        remaining = blockNumber();
+        return true;
+    }
+
+    /**
+     * Decodes one dictionary entry, namespace is returned as string, term as node
+     */
+    private Object readEntry() throws IOException {
+        int kind = block[position++];
+        switch (kind) {
+            case BinaryRDFSink.KIND_NAMESPACE:
+                return blockString();
+            case BinaryRDFSink.KIND_URI:
+                int namespace = blockNumber();
+                String local = blockString();
+                return Node.createURI(namespace == 0 ? local : dictionary.get(namespace) + local);
+            case BinaryRDFSink.KIND_BLANK:
+                return Node.createAnon(new AnonId(blockString()));
+            case BinaryRDFSink.KIND_LITERAL:
+                return Node.createLiteral(blockString(), null, false);
+            case BinaryRDFSink.KIND_LANG_LITERAL:
+                String lexical = blockString();
+                return Node.createLiteral(lexical, blockString(), false);
+            case BinaryRDFSink.KIND_TYPED_LITERAL:
+                String value = blockString();
+                String datatype = node(blockNumber()).getURI();
+                return Node.createLiteral(value, null, TypeMapper.getInstance().getSafeTypeByName(datatype));
+            default:
+                throw new IOException("Unknown dictionary entry " + kind);
+        }
+    }
+
+    /**
+     * Returns node of dictionary ID
+     */
+    private Node node(int id) throws IOException {
+        if (id <= 0 || id >= dictionary.size() || !(dictionary.get(id) instanceof Node)) {
+            throw new IOException("Invalid term ID " + id);
+        }
+        return (Node) dictionary.get(id);
+    }
+
+    private int blockNumber() {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = block[position++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private String blockString() throws UnsupportedEncodingException {
+        int length = blockNumber();
+        String value = new String(block, position, length, "UTF-8");
+        position += length;
+        return value;
+    }
+
+    private static int readNumber(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of binary RDF");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readNumber(in)];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
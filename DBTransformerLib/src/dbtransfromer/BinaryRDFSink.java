@@ -0,0 +1,257 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Triple sink which writes triples in compact binary format. Every distinct IRI namespace,
+ * IRI, blank node and literal is stored only once in dictionary built during writing,
+ * triples are stored as tuples of dictionary IDs. Dictionary entries and triples are written
+ * in deflate compressed blocks, every block contains entries first used by its triples.
+ * When dictionary exceeds its limit, it is cleared before next block, so memory consumption
+ * is bounded. File is read by {@link BinaryRDFReader}.
+ * <p>
+ * Format: magic "DBTRDF", version, prefixes (count, pairs of strings), blocks and end mark.
+ * Block is uncompressed length, compressed length and deflated payload; payload is reset flag,
+ * new dictionary entries (count, entries) and triples (count, IDs). Numbers are variable length
+ * integers, strings are UTF-8 bytes preceded by their length. End mark is block of length 0.
+ * Last Modified 17.10.2026
+ */
+public class BinaryRDFSink implements TripleSink {
+
+    static final byte[] MAGIC = {'D', 'B', 'T', 'R', 'D', 'F'};
+    static final int VERSION = 1;
+    static final int KIND_NAMESPACE = 0;
+    static final int KIND_URI = 1;
+    static final int KIND_BLANK = 2;
+    static final int KIND_LITERAL = 3;
+    static final int KIND_LANG_LITERAL = 4;
+    static final int KIND_TYPED_LITERAL = 5;
+    /**
+     * Default maximal number of dictionary entries
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+    /**
+     * Default size of uncompressed block (1 MB)
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    private final OutputStream out;
+    private final int maxEntries;
+    private final int blockSize;
+    private final Map<Node, Integer> terms = new HashMap<Node, Integer>();
+    private final Map<String, Integer> namespaces = new HashMap<String, Integer>();
+    private final Buffer entries = new Buffer();
+    private final Buffer triples = new Buffer();
+    private final Buffer header = new Buffer();
+    private final Buffer payload = new Buffer();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressed = new byte[64 * 1024];
+    private int nextId = 1;
+    private int entryCount = 0;
+    private int tripleCount = 0;
+    private boolean reset = false;
+
+    /**
+     * Creates new binary sink with default dictionary limit and block size
+     * @param out output stream, it isn't closed by sink
+     */
+    public BinaryRDFSink(OutputStream out) {
+        this(out, DEFAULT_MAX_ENTRIES, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates new binary sink
+     * @param out output stream, it isn't closed by sink
+     * @param maxEntries maximal number of dictionary entries kept in memory
+     * @param blockSize size of uncompressed block in bytes
+     */
+    public BinaryRDFSink(OutputStream out, int maxEntries, int blockSize) {
+        this.out = out;
+        this.maxEntries = maxEntries;
+        this.blockSize = blockSize;
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        header.reset();
+        header.write(MAGIC);
+        header.writeNumber(VERSION);
+        header.writeNumber(prefixes.size());
+        for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+            header.writeString(prefix.getKey());
+            header.writeString(prefix.getValue());
+        }
+        header.writeTo(out);
+    }
+
+    public void add(Triple triple) throws IOException {
+        int s = id(triple.getSubject());
+        int p = id(triple.getPredicate());
+        int o = id(triple.getObject());
+        triples.writeNumber(s);
+        triples.writeNumber(p);
+        triples.writeNumber(o);
+        tripleCount++;
+        if (entries.size() + triples.size() >= blockSize || nextId > maxEntries) {
+            writeBlock();
+        }
+    }
+
+    public void finish() throws IOException {
+        if (tripleCount > 0 || entryCount > 0) {
+            writeBlock();
+        }
+        header.reset();
+        header.writeNumber(0);
+        header.writeTo(out);
+        out.flush();
+        deflater.end();
+    }
+
+    /**
+     * Returns dictionary ID of node, node is added into dictionary if it isn't there
+     */
+    private int id(Node node) {
+        Integer id = terms.get(node);
+        if (id != null) {
+            return id.intValue();
+        }
+        if (node.isURI()) {
+            String uri = node.getURI();
+            int split = Math.max(uri.lastIndexOf('/'), uri.lastIndexOf('#')) + 1;
+            int namespace = split > 0 && split < uri.length() ? namespaceId(uri.substring(0, split)) : 0;
+            entries.write(KIND_URI);
+            entries.writeNumber(namespace);
+            entries.writeString(namespace == 0 ? uri : uri.substring(split));
+        } else if (node.isBlank()) {
+            entries.write(KIND_BLANK);
+            entries.writeString(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            String datatype = node.getLiteralDatatypeURI();
+            String language = node.getLiteralLanguage();
+            if (datatype != null) {
+                int datatypeId = id(Node.createURI(datatype));
+                entries.write(KIND_TYPED_LITERAL);
+                entries.writeString(node.getLiteralLexicalForm());
+                entries.writeNumber(datatypeId);
+            } else if (language != null && language.length() > 0) {
+                entries.write(KIND_LANG_LITERAL);
+                entries.writeString(node.getLiteralLexicalForm());
+                entries.writeString(language);
+            } else {
+                entries.write(KIND_LITERAL);
+                entries.writeString(node.getLiteralLexicalForm());
+            }
+        } else {
+            throw new IllegalArgumentException("Node " + node + " can't be serialized");
+        }
+        entryCount++;
+        terms.put(node, Integer.valueOf(nextId));
+        return nextId++;
+    }
+
+    /**
+     * Returns dictionary ID of IRI namespace
+     */
+    private int namespaceId(String namespace) {
+        Integer id = namespaces.get(namespace);
+        if (id != null) {
+            return id.intValue();
+        }
+        entries.write(KIND_NAMESPACE);
+        entries.writeString(namespace);
+        entryCount++;
+        namespaces.put(namespace, Integer.valueOf(nextId));
+        return nextId++;
+    }
+
+    /**
+     * Compresses and writes block of new entries and triples
+     */
+    private void writeBlock() throws IOException {
+        payload.reset();
+        payload.write(reset ? 1 : 0);
+        payload.writeNumber(entryCount);
+        entries.writeTo(payload);
+        payload.writeNumber(tripleCount);
+        triples.writeTo(payload);
+        deflater.reset();
+        payload.deflate(deflater);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                byte[] larger = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, larger, 0, length);
+                compressed = larger;
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        header.reset();
+        header.writeNumber(payload.size());
+        header.writeNumber(length);
+        header.writeTo(out);
+        out.write(compressed, 0, length);
+
+        entries.reset();
+        triples.reset();
+        entryCount = 0;
+        tripleCount = 0;
+        reset = nextId > maxEntries;
+        if (reset) {
+            terms.clear();
+            namespaces.clear();
+            nextId = 1;
+        }
+    }
+
+    /**
+     * Byte buffer with variable length integers and strings
+     */
+    static class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(64 * 1024);
+        }
+
+        /**
+         * Writes non negative integer in 7 bit groups, the lowest group first
+         */
+        void writeNumber(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes;
+            try {
+                bytes = value.getBytes("UTF-8");
+            } catch (java.io.UnsupportedEncodingException e) {
+                // UTF-8 is always supported
+                throw new IllegalStateException(e.getMessage());
+            }
+            writeNumber(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        /**
+         * Sets content of buffer as input of deflater
+         */
+        void deflate(Deflater deflater) {
+            deflater.setInput(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,655 @@
+package dbtransfromer;
+
+import de.fuberlin.wiwiss.d2rq.map.Database;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.logging.Logger;
+
+/**
+ * Instance of this class keeps open JDBC connections to one database and lends them
+ * to D2RQ databases and extraction workers, so connections outlive single transformation.
+ * Pool is registered under its own JDBC URL (see {@link #getURL()}) served by pooling driver,
+ * D2RQ mapping only refers to this URL instead of real database. Connection borrowed from
+ * pool returns back when it is closed. Idle connections are validated before they are
+ * lent and closed when they aren't used for longer than idle timeout. New connections
+ * are set up for streaming by {@link SQLDialect} of database, fetch size of their queries
+ * can be tuned by {@link FetchSizeTuner}. Statements created by thread running
+ * {@link TransformationJob} are registered in the job, so they are cancelled with it.
+ * Last Modified 17.10.2026
+ */
+public class ConnectionPool {
+
+    /**
+     * Prefix of JDBC URLs of connection pools
+     */
+    public static final String URL_PREFIX = "jdbc:dbtransformer:pool:";
+    private static final Map<String, ConnectionPool> pools = new HashMap<String, ConnectionPool>();
+    private static int lastId = 0;
+
+    static {
+        try {
+            DriverManager.registerDriver(new PoolDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String url;
+    private final String driver;
+    private final String jdbc;
+    private final String username;
+    private final String password;
+    private final LinkedList<IdleConnection> idle = new LinkedList<IdleConnection>();
+    private int minSize = 0;
+    private int maxSize = 8;
+    private long maxWait = 30000;
+    private long idleTimeout = 10 * 60 * 1000;
+    private int validationTimeout = 5;
+    private String validationQuery;
+    private int opened = 0;
+    private boolean closed = false;
+    private Timer evictor;
+    private volatile FetchSizeTuner fetchSizeTuner;
+
+    /**
+     * Creates new pool and registers it under its own JDBC URL
+     * @param driver JDBC driver class of database
+     * @param jdbc JDBC connection string of database
+     * @param username database user name
+     * @param password database password
+     */
+    public ConnectionPool(String driver, String jdbc, String username, String password) {
+        this.driver = driver;
+        this.jdbc = jdbc;
+        this.username = username;
+        this.password = password;
+        synchronized (pools) {
+            this.url = URL_PREFIX + (++lastId);
+            pools.put(url, this);
+        }
+    }
+
+    /**
+     * Creates new pool for database given by connection parameters
+     * @param dbparam database connection parameters
+     */
+    public ConnectionPool(DBParameters dbparam) {
+        this(dbparam.getDriver(), dbparam.getJdbc(), dbparam.getUsername(), dbparam.getPassword());
+    }
+
+    /**
+     * Returns pool registered under given JDBC URL
+     * @param url JDBC URL of pool
+     * @return connection pool or null if URL doesn't belong to open pool
+     */
+    public static ConnectionPool forURL(String url) {
+        synchronized (pools) {
+            return pools.get(url);
+        }
+    }
+
+    /**
+     * Borrows connection from pool. If there isn't any valid idle connection, new one is
+     * opened, if maximal size of pool is reached, method waits until some connection is returned.
+     * @return pooled connection, it has to be closed to return it into pool
+     * @throws SQLException if connection can't be opened or pool is exhausted
+     */
+    public Connection getConnection() throws SQLException {
+        Connection connection = null;
+        while (connection == null) {
+            synchronized (this) {
+                long deadline = System.currentTimeMillis() + maxWait;
+                while (!closed && idle.isEmpty() && opened >= maxSize) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        throw new SQLException("Connection pool " + url + " is exhausted (" + maxSize + " connections)");
+                    }
+                    try {
+                        wait(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted during waiting for connection");
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool " + url + " is closed");
+                }
+                if (idle.isEmpty()) {
+                    opened++;
+                } else {
+                    connection = idle.removeFirst().connection;
+                }
+            }
+            if (connection == null) {
+                connection = open();
+            } else if (!isValid(connection)) {
+                discard(connection);
+                connection = null;
+            }
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PooledConnection(connection));
+    }
+
+    /**
+     * Closes idle connections and unregisters pool. Borrowed connections are closed when they are returned.
+     */
+    public void close() {
+        synchronized (pools) {
+            pools.remove(url);
+        }
+        LinkedList<IdleConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            if (evictor != null) {
+                evictor.cancel();
+                evictor = null;
+            }
+            toClose = new LinkedList<IdleConnection>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        for (IdleConnection connection : toClose) {
+            discard(connection.connection);
+        }
+    }
+
+    /**
+     * Closes connections which are idle for longer than idle timeout, minimal number
+     * of connections is kept open
+     */
+    void evictIdle() {
+        LinkedList<IdleConnection> toClose = new LinkedList<IdleConnection>();
+        synchronized (this) {
+            long limit = System.currentTimeMillis() - idleTimeout;
+            // the least recently used connections are at the end of list
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext() && opened - toClose.size() > minSize) {
+                IdleConnection connection = it.next();
+                if (connection.since > limit) {
+                    break;
+                }
+                it.remove();
+                toClose.add(connection);
+            }
+        }
+        for (IdleConnection connection : toClose) {
+            discard(connection.connection);
+        }
+    }
+
+    /**
+     * Opens new connection to database, slot for it has to be reserved already
+     */
+    private Connection open() throws SQLException {
+        try {
+            if (driver != null) {
+                Database.registerJDBCDriverIfPresent(driver);
+            }
+            SQLDialect dialect = SQLDialect.forDriver(driver, jdbc);
+            Properties properties = dialect.connectionProperties();
+            if (username != null) {
+                properties.setProperty("user", username);
+            }
+            if (password != null) {
+                properties.setProperty("password", password);
+            }
+            Connection connection = DriverManager.getConnection(jdbc, properties);
+            try {
+                dialect.prepareConnection(connection);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            startEvictor();
+            return connection;
+        } catch (SQLException e) {
+            synchronized (this) {
+                opened--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns connection back into pool
+     */
+    private void release(Connection connection, boolean autoCommit) {
+        try {
+            if (connection.isClosed()) {
+                discard(connection);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                // ends transaction of cursors left by borrower
+                connection.rollback();
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                idle.addFirst(new IdleConnection(connection));
+                notifyAll();
+                return;
+            }
+        }
+        discard(connection);
+    }
+
+    /**
+     * Closes connection and frees its slot
+     */
+    private void discard(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // connection is unusable anyway
+        }
+        synchronized (this) {
+            opened--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Validates idle connection by validation query or JDBC 4 validity check
+     */
+    private boolean isValid(Connection connection) {
+        try {
+            if (validationQuery != null) {
+                Statement stmt = connection.createStatement();
+                try {
+                    stmt.setQueryTimeout(validationTimeout);
+                    stmt.execute(validationQuery);
+                } finally {
+                    stmt.close();
+                }
+                return true;
+            }
+            try {
+                return connection.isValid(validationTimeout);
+            } catch (AbstractMethodError e) {
+                // JDBC 3 driver
+                return !connection.isClosed();
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts daemon thread periodically evicting idle connections
+     */
+    private synchronized void startEvictor() {
+        if (evictor != null || closed || idleTimeout <= 0) {
+            return;
+        }
+        evictor = new Timer("ConnectionPool evictor " + url, true);
+        long period = Math.max(1000, idleTimeout / 2);
+        evictor.schedule(new TimerTask() {
+
+            @Override
+            public void run() {
+                evictIdle();
+            }
+        }, period, period);
+    }
+
+    /**
+     * Returns JDBC URL of this pool, it can be used as d2rq:jdbcDSN
+     * @return JDBC URL of pool
+     */
+    public String getURL() {
+        return url;
+    }
+
+    /**
+     * returns JDBC connection string of pooled database
+     * @return JDBC connection string
+     */
+    public String getJdbc() {
+        return jdbc;
+    }
+
+    /**
+     * returns JDBC driver class of pooled database
+     * @return JDBC driver class
+     */
+    public String getDriver() {
+        return driver;
+    }
+
+    /**
+     * returns number of open connections, both idle and borrowed
+     * @return number of open connections
+     */
+    public synchronized int getSize() {
+        return opened;
+    }
+
+    /**
+     * returns number of idle connections
+     * @return number of idle connections
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * returns minimal number of connections kept open by idle eviction
+     * @return minimal number of connections
+     */
+    public synchronized int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * set minimal number of connections kept open by idle eviction
+     * @param minSize minimal number of connections
+     */
+    public synchronized void setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Minimal size must not be negative");
+        }
+        this.minSize = minSize;
+    }
+
+    /**
+     * returns maximal number of open connections
+     * @return maximal number of connections
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * set maximal number of open connections. It should be at least number of extraction workers.
+     * @param maxSize maximal number of connections
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximal size must be positive");
+        }
+        this.maxSize = maxSize;
+        notifyAll();
+    }
+
+    /**
+     * returns maximal time of waiting for connection when pool is exhausted
+     * @return time in milliseconds
+     */
+    public synchronized long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * set maximal time of waiting for connection when pool is exhausted
+     * @param maxWait time in milliseconds
+     */
+    public synchronized void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * returns time after which idle connection is closed
+     * @return time in milliseconds, 0 if idle connections aren't evicted
+     */
+    public synchronized long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * set time after which idle connection is closed
+     * @param idleTimeout time in milliseconds, 0 disables eviction
+     */
+    public synchronized void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        if (evictor != null) {
+            evictor.cancel();
+            evictor = null;
+        }
+        if (opened > 0) {
+            startEvictor();
+        }
+    }
+
+    /**
+     * returns query used for validation of idle connections
+     * @return SQL query or null if JDBC validity check is used
+     */
+    public synchronized String getValidationQuery() {
+        return validationQuery;
+    }
+
+    /**
+     * set query used for validation of idle connections (e.g. "SELECT 1 FROM DUAL" for Oracle)
+     * @param validationQuery SQL query, null for JDBC validity check
+     */
+    public synchronized void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    /**
+     * returns timeout of validation of idle connection
+     * @return timeout in seconds
+     */
+    public synchronized int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * set timeout of validation of idle connection
+     * @param validationTimeout timeout in seconds
+     */
+    public synchronized void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    /**
+     * returns tuner of fetch size of queries
+     * @return fetch size tuner or null if fetch size isn't tuned
+     */
+    public FetchSizeTuner getFetchSizeTuner() {
+        return fetchSizeTuner;
+    }
+
+    /**
+     * set tuner of fetch size of queries, it is used for statements created after this call
+     * @param fetchSizeTuner fetch size tuner, null disables tuning
+     */
+    public void setFetchSizeTuner(FetchSizeTuner fetchSizeTuner) {
+        this.fetchSizeTuner = fetchSizeTuner;
+    }
+
+    /**
+     * Idle connection with time of its return into pool
+     */
+    private static class IdleConnection {
+
+        private final Connection connection;
+        private final long since;
+
+        IdleConnection(Connection connection) {
+            this.connection = connection;
+            this.since = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Handler of borrowed connection, closing returns connection into pool
+     */
+    private class PooledConnection implements InvocationHandler {
+
+        private Connection connection;
+        private final boolean autoCommit;
+
+        PooledConnection(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                synchronized (this) {
+                    if (connection != null) {
+                        release(connection, autoCommit);
+                        connection = null;
+                    }
+                }
+                return null;
+            } else if (name.equals("isClosed")) {
+                synchronized (this) {
+                    return Boolean.valueOf(connection == null || connection.isClosed());
+                }
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if (name.equals("toString")) {
+                return "Pooled connection of " + url;
+            }
+            Connection target;
+            synchronized (this) {
+                target = connection;
+            }
+            if (target == null) {
+                throw new SQLException("Connection is closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            TransformationJob job = TransformationJob.current();
+            if (job != null && result instanceof Statement) {
+                job.register((Statement) result);
+            }
+            FetchSizeTuner tuner = fetchSizeTuner;
+            ExtractionStatistics statistics = ExtractionStatistics.current();
+            if ((tuner != null || statistics != null) && result instanceof Statement) {
+                String sql = name.startsWith("prepare") ? (String) args[0] : null;
+                result = Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                        new MeteredStatement((Statement) result, sql, tuner, statistics));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Handler of statement, its queries start with fetch size of tuner and their result sets
+     * are read through {@link MeteredResultSet}
+     */
+    private static class MeteredStatement implements InvocationHandler {
+
+        private final Statement stmt;
+        private final String sql;
+        private final FetchSizeTuner tuner;
+        private final ExtractionStatistics statistics;
+        private int requested = 0;
+
+        MeteredStatement(Statement stmt, String sql, FetchSizeTuner tuner, ExtractionStatistics statistics) {
+            this.stmt = stmt;
+            this.sql = sql;
+            this.tuner = tuner;
+            this.statistics = statistics;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("setFetchSize")) {
+                requested = ((Integer) args[0]).intValue();
+            } else if (name.equals("executeQuery")) {
+                String query = args == null || args.length == 0 ? sql : (String) args[0];
+                String table = FetchSizeTuner.fromClause(query);
+                // non positive fetch size has special meaning for driver (e.g. MySQL streaming)
+                int fetchSize = tuner != null && table != null && requested > 0 ? tuner.fetchSize(table, requested) : 0;
+                if (fetchSize > 0) {
+                    stmt.setFetchSize(fetchSize);
+                }
+                long start = System.nanoTime();
+                ResultSet rs = (ResultSet) ConnectionPool.invoke(stmt, method, args);
+                long elapsed = System.nanoTime() - start;
+                return new MeteredResultSet(rs, statistics == null ? null : statistics.count(table, elapsed),
+                        fetchSize > 0 ? tuner.tune(rs, table, fetchSize) : null);
+            }
+            return ConnectionPool.invoke(stmt, method, args);
+        }
+    }
+
+    /**
+     * Unwraps exception thrown by invoked JDBC method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * JDBC driver serving URLs of connection pools
+     */
+    private static class PoolDriver implements Driver {
+
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            ConnectionPool pool = forURL(url);
+            if (pool == null) {
+                throw new SQLException("Connection pool " + url + " doesn't exist or is closed");
+            }
+            return pool.getConnection();
+        }
+
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(URL_PREFIX);
+        }
+
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dbtransfromer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream counting bytes written through it, count can be also added into
+ * statistics of transformation.
+ * Last Modified 17.10.2026
+ */
+class CountingOutputStream extends FilterOutputStream {
+
+    private final ExtractionStatistics statistics;
+    private long count = 0;
+
+    /**
+     * Creates new counting stream
+     * @param out underlying stream
+     * @param statistics statistics to which written bytes are added, can be null
+     */
+    CountingOutputStream(OutputStream out, ExtractionStatistics statistics) {
+        super(out);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+        if (statistics != null) {
+            statistics.addBytesWritten(1);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+        if (statistics != null) {
+            statistics.addBytesWritten(len);
+        }
+    }
+
+    /**
+     * Returns number of written bytes
+     * @return number of bytes
+     */
+    long getCount() {
+        return count;
+    }
+}
@@ -17,6 +17,9 @@ public class DBParameters {
     private String username;
     private String password;
     private int fetchSize;
+    private long partitionThreshold;
+    private int partitions;
+    private ConnectionPool connectionPool;
 
     /**
      * Empty constructor, every parameter needs to be declare explicitly by setter.
@@ -134,4 +137,55 @@ public class DBParameters {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    /**
+     * returns minimal number of rows of table which is extracted in key range partitions
+     * @return number of rows, 0 if partitioning is disabled
+     */
+    public long getPartitionThreshold() {
+        return partitionThreshold;
+    }
+
+    /**
+     * set minimal number of rows of table which is extracted in key range partitions.
+     * Table needs single column numeric primary key to be partitioned.
+     * @param partitionThreshold number of rows, 0 disables partitioning
+     */
+    public void setPartitionThreshold(long partitionThreshold) {
+        this.partitionThreshold = partitionThreshold;
+    }
+
+    /**
+     * returns number of key ranges of partitioned table
+     * @return number of ranges, 0 if number of extraction workers is used
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * set number of key ranges of partitioned table
+     * @param partitions number of ranges, 0 means number of extraction workers
+     */
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * returns pool of connections to database
+     * @return connection pool or null if every transformation opens its own connections
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * set pool of connections to database. Pool is shared by D2RQ databases and all
+     * extraction workers and its connections are reused by next transformations
+     * with these parameters. Pool is not closed by transformer.
+     * @param connectionPool connection pool, null disables pooling
+     */
+    public void setConnectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
 }
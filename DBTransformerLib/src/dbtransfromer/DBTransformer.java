@@ -1,8 +1,12 @@
 package dbtransfromer;
 
 import dbtransfromer.DBTransformerImpl.DumpParameterException;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.WritableByteChannel;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyStorageException;
 
@@ -32,4 +36,34 @@ public interface DBTransformer {
      * @throws FileNotFoundException
      */
     public byte[] transform(DBParameters dbParameters, String baseURI) throws DumpParameterException, UnsupportedEncodingException, FileNotFoundException;
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into output stream
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param out output stream for RDF graph
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException
+     * @throws IOException
+     */
+    public void transform(DBParameters dbParameters, String baseURI, OutputStream out) throws DumpParameterException, IOException;
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into channel
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param channel output channel for RDF graph
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException
+     * @throws IOException
+     */
+    public void transform(DBParameters dbParameters, String baseURI, WritableByteChannel channel) throws DumpParameterException, IOException;
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into file
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param file output file for RDF graph
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException
+     * @throws IOException
+     */
+    public void transform(DBParameters dbParameters, String baseURI, File file) throws DumpParameterException, IOException;
 }
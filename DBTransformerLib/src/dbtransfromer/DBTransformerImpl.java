@@ -1,18 +1,62 @@
 package dbtransfromer;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Model;
-import com.hp.hpl.jena.rdf.model.RDFWriter;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.shared.JenaException;
 import com.hp.hpl.jena.util.FileManager;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.vocabulary.RDF;
 
+import de.fuberlin.wiwiss.d2rq.D2RQException;
 import de.fuberlin.wiwiss.d2rq.ModelD2RQ;
 import de.fuberlin.wiwiss.d2rq.map.Database;
 import de.fuberlin.wiwiss.d2rq.map.Mapping;
 import de.fuberlin.wiwiss.d2rq.mapgen.MappingGenerator;
 import de.fuberlin.wiwiss.d2rq.parser.MapParser;
+import de.fuberlin.wiwiss.d2rq.sql.ConnectedDB;
+import de.fuberlin.wiwiss.d2rq.vocab.D2RQ;
 import de.uulm.ecs.ai.owlapi.krssparser.KRSS2OntologyFormat;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -28,6 +72,7 @@ import org.semanticweb.owlapi.io.OWLXMLOntologyFormat;
 import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLOntologyStorageException;
@@ -43,9 +88,15 @@ import uk.ac.manchester.cs.owlapi.dlsyntax.DLSyntaxOntologyFormat;
  */
 public class DBTransformerImpl implements DBTransformer {
 
-    private final String[] includedDrivers = {
+    private static final String[] includedDrivers = {
         "com.mysql.jdbc.Driver"
     };
+
+    static {
+        for (int i = 0; i < includedDrivers.length; i++) {
+            Database.registerJDBCDriverIfPresent(includedDrivers[i]);
+        }
+    }
     /**
      * Constant reresents RDF / XML output format
      */
@@ -98,16 +149,78 @@ public class DBTransformerImpl implements DBTransformer {
      * Constant reresents Prefix OWL format
      */
     public final int TYPE_PREFIXOWL = 13;
+    /**
+     * Constant reresents N-Triples format
+     */
+    public final int TYPE_NTRIPLES = 14;
+    /**
+     * Constant reresents dictionary encoded binary RDF format (see {@link BinaryRDFSink})
+     */
+    public final int TYPE_BINARY = 15;
     /**
      * Constant reresents unknown format
      */
     public final int TYPE_UNKNOWN = 0;
+    /**
+     * Constant represents uncompressed output files
+     */
+    public final int COMPRESSION_NONE = 0;
+    /**
+     * Constant represents output files compressed by gzip in single stream
+     */
+    public final int COMPRESSION_GZIP = 1;
+    /**
+     * Constant represents output files compressed by gzip in independent blocks on more threads
+     */
+    public final int COMPRESSION_BLOCK_GZIP = 2;
+    /**
+     * Constant represents extraction without deduplication of triples
+     */
+    public final int DEDUPLICATION_NONE = 0;
+    /**
+     * Constant represents exact deduplication of triples (see {@link DeduplicatingSink})
+     */
+    public final int DEDUPLICATION_EXACT = 1;
+    /**
+     * Constant represents approximate deduplication of triples with fixed memory and bounded
+     * rate of dropped unique triples (see {@link DeduplicatingSink})
+     */
+    public final int DEDUPLICATION_APPROXIMATE = 2;
+    /**
+     * Default size of buffer used for streaming output (64 kB)
+     */
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Default interval between notifications of progress listener (1 s)
+     */
+    public static final long DEFAULT_PROGRESS_INTERVAL = 1000;
     
     private String mapping;
     private String base;
     private String format;
     private String output;
     private DBParameters dbparam;
+    private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+    private int workers = 1;
+    private MappingCache mappingCache;
+    private int compression = COMPRESSION_NONE;
+    private int compressionThreads = Runtime.getRuntime().availableProcessors();
+    private ExtractionStatistics statistics;
+    private long partMaxTriples = 0;
+    private long partMaxBytes = 0;
+    private String jmxName = null;
+    private ProgressListener progressListener = null;
+    private boolean meteredConnections = false;
+    private long progressInterval = DEFAULT_PROGRESS_INTERVAL;
+    private SnapshotStore snapshotStore = null;
+    private String snapshotName = "extraction";
+    private SnapshotStore.Snapshot lastSnapshot = null;
+    private long heapBudget = SpillBuffer.DEFAULT_HEAP_BUDGET;
+    private File spillDirectory = null;
+    private int deduplication = DEDUPLICATION_NONE;
+    private long expectedTriples = DeduplicatingSink.DEFAULT_EXPECTED_TRIPLES;
+    private double falsePositiveRate = DeduplicatingSink.DEFAULT_FALSE_POSITIVE_RATE;
+    private boolean singleScan = false;
 
     /**
      * Creates new transformer
@@ -136,32 +249,605 @@ public class DBTransformerImpl implements DBTransformer {
     }
 
     /**
-     * Transform data from RDB into RDF graph
+     * Transform data from RDB into RDF graph, whole graph is kept in memory
+     * (see {@link #transformToBuffer(DBParameters, String)} for large databases). Signature
+     * of this method can't declare IOException, errors of snapshot store and writer threads
+     * are thrown unchecked (see {@link #transform(DBParameters, String, OutputStream)}).
      * @param dbParameters database connection parameters
      * @param baseURI base RDF URI
      * @return RDF graph in byte[]
      * @throws dbtransfromer.DBTransformerImpl.DumpParameterException
      * @throws UnsupportedEncodingException
      * @throws FileNotFoundException
+     * @throws IllegalStateException if I/O error happened, IOException is its cause
+     * @throws CancellationException if job of current thread was cancelled
      */
     public byte[] transform(DBParameters dbParameters, String baseURI) throws DumpParameterException, UnsupportedEncodingException, FileNotFoundException {
-        
-        dbparam = dbParameters;
-        for (int i = 0; i < includedDrivers.length; i++) {
-            Database.registerJDBCDriverIfPresent(includedDrivers[i]);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try {
+            dump(createDump(dbParameters, baseURI), bout);
+        } catch (UnsupportedEncodingException e) {
+            throw e;
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (InterruptedIOException e) {
+            CancellationException cancelled = new CancellationException(e.getMessage());
+            cancelled.initCause(e);
+            throw cancelled;
+        } catch (IOException e) {
+            // output is in memory, but snapshot store and writer threads can fail
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return bout.toByteArray();
+    }
+
+    /**
+     * Transform data from RDB into RDF graph kept on heap up to heap budget
+     * (see {@link #setHeapBudget(long)}), larger graph is spilled into temporary file.
+     * Buffer can be converted by {@link #convert(int, SpillBuffer)}.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return RDF graph (N-Triples), caller has to delete it
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public SpillBuffer transformToBuffer(DBParameters dbParameters, String baseURI) throws DumpParameterException, IOException {
+        SpillBuffer rdf = createBuffer();
+        boolean done = false;
+        try {
+            dump(createDump(dbParameters, baseURI), rdf);
+            rdf.close();
+            done = true;
+        } finally {
+            if (!done) {
+                rdf.delete();
+            }
+        }
+        return rdf;
+    }
+
+    /**
+     * Creates buffer for RDF graph with heap budget and spill directory of this transformer
+     * @return empty buffer
+     */
+    private SpillBuffer createBuffer() {
+        return new SpillBuffer(heapBudget, spillDirectory);
+    }
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into given output stream.
+     * Data are written through buffer of bounded size (see {@link #setOutputBufferSize(int)}),
+     * so memory consumption doesn't depend on size of database. Stream is flushed but not closed.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param out output stream for RDF graph (N-Triples)
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public void transform(DBParameters dbParameters, String baseURI, OutputStream out) throws DumpParameterException, IOException {
+        BufferedOutputStream bufferedOut = new BufferedOutputStream(out, outputBufferSize);
+        dump(createDump(dbParameters, baseURI), bufferedOut);
+        bufferedOut.flush();
+    }
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into given channel.
+     * Channel is not closed.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param channel output channel for RDF graph (N-Triples)
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public void transform(DBParameters dbParameters, String baseURI, WritableByteChannel channel) throws DumpParameterException, IOException {
+        transform(dbParameters, baseURI, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Transform data from RDB into RDF graph and stream it into given file.
+     * Existing file is overwritten.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param file output file for RDF graph (N-Triples)
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public void transform(DBParameters dbParameters, String baseURI, File file) throws DumpParameterException, IOException {
+        FileOutputStream fout = new FileOutputStream(file);
+        boolean done = false;
+        try {
+            transform(dbParameters, baseURI, fout);
+            done = true;
+        } finally {
+            fout.close();
+            if (!done && isCancelled()) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Transform data from RDB directly into output file in selected format.
+     * RDF formats (RDF / XML, Turtle, N-Triples) are written straight from D2RQ model
+     * without OWL API, other formats are created by {@link #convert(int, SpillBuffer)}.
+     * @param type number representation of output format
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return true if transformation was successful
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    public boolean export(int type, DBParameters dbParameters, String baseURI) throws DumpParameterException, IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        if (!isDirectType(type)) {
+            SpillBuffer rdf = transformToBuffer(dbParameters, baseURI);
+            try {
+                checkCancelled();
+                return convert(type, rdf);
+            } finally {
+                rdf.delete();
+            }
+        }
+        if (partMaxTriples > 0 || partMaxBytes > 0) {
+            exportParts(type, dbParameters, baseURI);
+            return true;
+        }
+        RDFDump dump = createDump(dbParameters, baseURI);
+        dump.setFormat(dumpFormat(type));
+        File file = outputFile();
+        OutputStream fout = openOutput(file, false);
+        boolean done = false;
+        try {
+            dump(dump, fout);
+            done = true;
+        } finally {
+            fout.close();
+            if (!done && isCancelled()) {
+                file.delete();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Transform data from RDB into numbered part files in selected RDF format. New part
+     * is started after every {@link #setPartMaxTriples(long)} triples or
+     * {@link #setPartMaxBytes(long)} bytes, parts always end on statement boundary.
+     * Parts are placed next to output file and named by it (output "dump.nt" gives
+     * "dump.part00001.nt", ...), manifest "dump.manifest" lists every part with its
+     * number of triples and checksum. Parts are extracted sequentially.
+     * @param type number representation of output format, only RDF / XML, Turtle, N-Triples and binary RDF
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return manifest of written parts
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public PartManifest exportParts(int type, DBParameters dbParameters, String baseURI) throws DumpParameterException, IOException {
+        if (!isDirectType(type)) {
+            throw new DumpParameterException("Output format can't be split into parts");
+        }
+        RDFDump dump = createDump(dbParameters, baseURI);
+        dump.setFormat(dumpFormat(type));
+        return dump.doRollingDump(new File(output).getAbsoluteFile(), partMaxTriples, partMaxBytes);
+    }
+
+    /**
+     * Transform data from RDB once and write them into several output files in different formats.
+     * RDF formats (RDF / XML, Turtle, N-Triples, binary RDF) are written straight from the extraction,
+     * every format by its own thread (see {@link FanOutSink}). For other formats triples are collected
+     * as N-Triples during the same extraction, ontology is loaded by OWL API only once and saved
+     * in all these formats concurrently. Compression applies to all output files.
+     * @param outputs output path of every output format (number representation of format -> path)
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return true if transformation was successful
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    public boolean exportFormats(Map<Integer, String> outputs, DBParameters dbParameters, String baseURI) throws DumpParameterException, IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        RDFDump dump = createDump(dbParameters, baseURI);
+        List<TripleSink> sinks = new ArrayList<TripleSink>();
+        List<OutputStream> streams = new ArrayList<OutputStream>();
+        List<File> files = new ArrayList<File>();
+        Map<Integer, String> ontologyOutputs = new LinkedHashMap<Integer, String>();
+        SpillBuffer rdf = null;
+        boolean done = false;
+        try {
+            for (Map.Entry<Integer, String> entry : outputs.entrySet()) {
+                int type = entry.getKey().intValue();
+                File file = outputFile(entry.getValue());
+                files.add(file);
+                if (isDirectType(type)) {
+                    OutputStream fout = openOutput(file, false);
+                    streams.add(fout);
+                    sinks.add(dump.createSink(fout, dumpFormat(type)));
+                } else {
+                    ontologyOutputs.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!ontologyOutputs.isEmpty()) {
+                rdf = createBuffer();
+                sinks.add(new NTriplesSink(rdf));
+            }
+            FanOutSink fanOut = new FanOutSink(sinks);
+            try {
+                dump.doDump(fanOut);
+            } finally {
+                fanOut.close();
+            }
+            closeAll(streams);
+            if (rdf != null) {
+                checkCancelled();
+                saveOntologies(rdf, ontologyOutputs);
+            }
+            done = true;
+        } finally {
+            if (rdf != null) {
+                rdf.delete();
+            }
+            if (!done) {
+                try {
+                    closeAll(streams);
+                } catch (IOException e) {
+                    // original failure is reported
+                }
+                if (isCancelled()) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads ontology once and saves it in several formats, every format by its own thread
+     * @param rdf RDF graph (N-Triples)
+     * @param outputs output path of every output format
+     * @throws IOException if saving was interrupted
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    private void saveOntologies(SpillBuffer rdf, Map<Integer, String> outputs) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        long start = System.nanoTime();
+        final OWLOntology ontology;
+        InputStream in = rdf.openInputStream();
+        try {
+            ontology = manager.loadOntologyFromOntologyDocument(in);
+        } finally {
+            in.close();
+        }
+        statistics.addPhaseTime(ExtractionStatistics.PHASE_LOAD, System.nanoTime() - start);
+        start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(outputs.size());
+        try {
+            List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for (Map.Entry<Integer, String> entry : outputs.entrySet()) {
+                final OWLOntologyFormat ontologyFormat = ontologyFormat(entry.getKey().intValue());
+                final String path = entry.getValue();
+                // ontology is only read by storers, so it can be saved concurrently
+                results.add(executor.submit(new Callable<Object>() {
+
+                    public Object call() throws OWLOntologyStorageException {
+                        saveOntology(manager, ontology, ontologyFormat, path);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Object> result : results) {
+                try {
+                    result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    checkCancelled();
+                    throw new InterruptedIOException("Saving of ontology was interrupted");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof OWLOntologyStorageException) {
+                        throw (OWLOntologyStorageException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new OWLOntologyStorageException(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        statistics.addPhaseTime(ExtractionStatistics.PHASE_SAVE, System.nanoTime() - start);
+        statistics.finish();
+        manager.removeOntology(ontology);
+    }
+
+    /**
+     * Closes all streams, the first error is thrown after all streams are closed
+     * @param streams output streams
+     * @throws IOException if some stream can't be closed
+     */
+    private static void closeAll(List<OutputStream> streams) throws IOException {
+        IOException error = null;
+        for (OutputStream stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Transform only data added or changed since previous run and append them as N-Triples
+     * to delta file. Every table is tracked by its watermark column (see {@link WatermarkTracker}),
+     * tables without watermark column are transformed only by the first run. Changed rows
+     * are appended again, triples of their old values aren't retracted.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param tracker watermarks of tables, they are stored when delta is written
+     * @param deltaFile append-only output file
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public void transformDelta(DBParameters dbParameters, String baseURI, WatermarkTracker tracker, File deltaFile) throws DumpParameterException, IOException {
+        long length = deltaFile.length();
+        OutputStream fout = openOutput(deltaFile, true);
+        boolean done = false;
+        try {
+            createDump(dbParameters, baseURI).doDeltaDump(fout, tracker, workers);
+            done = true;
+        } finally {
+            fout.close();
+            if (!done && isCancelled()) {
+                // removes partial delta, watermarks weren't stored
+                RandomAccessFile raf = new RandomAccessFile(deltaFile, "rw");
+                try {
+                    raf.setLength(length);
+                } finally {
+                    raf.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Transform data from RDB into RDF graph, every ClassMap (table) is extracted in parallel
+     * into its own N-Triples file in given directory.
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @param directory output directory
+     * @return created files
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    public List<File> transformParts(DBParameters dbParameters, String baseURI, File directory) throws DumpParameterException, IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new FileNotFoundException("Can't create directory " + directory);
+        }
+        return createDump(dbParameters, baseURI).doParallelDump(directory, workers);
+    }
+
+    /**
+     * Runs dump into output stream, N-Triples are extracted in parallel if more workers are set
+     * and snapshots aren't stored
+     * @param dump configured dump
+     * @param out output stream
+     * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+     * @throws IOException if error during writing happened
+     */
+    private void dump(RDFDump dump, OutputStream out) throws DumpParameterException, IOException {
+        if (workers > 1 && dump.isNTriples() && snapshotStore == null) {
+            dump.doParallelDump(out, workers);
+        } else {
+            dump.doDump(out);
+        }
+    }
+
+    /**
+     * Creates cancellable job exporting data into output file in selected format
+     * (see {@link #export(int, DBParameters, String)}). Job has to be run by thread
+     * or executor, cancelling of job stops transformation and deletes partial output.
+     * @param type number representation of output format
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return job returning true if transformation was successful
+     */
+    public TransformationJob createExportJob(final int type, final DBParameters dbParameters, final String baseURI) {
+        return new TransformationJob(output, new Callable<Boolean>() {
+
+            public Boolean call() throws Exception {
+                return Boolean.valueOf(export(type, dbParameters, baseURI));
+            }
+        });
+    }
+
+    /**
+     * Check if transformation running in current thread is cancelled
+     * @return true if job of current thread is cancelled
+     */
+    private static boolean isCancelled() {
+        TransformationJob job = TransformationJob.current();
+        return job != null && job.isCancelled();
+    }
+
+    /**
+     * Throws exception if transformation running in current thread is cancelled
+     * @throws InterruptedIOException if job of current thread is cancelled
+     */
+    private static void checkCancelled() throws InterruptedIOException {
+        TransformationJob job = TransformationJob.current();
+        if (job != null) {
+            job.checkCancelled();
+        }
+    }
+
+    /**
+     * Check if output format can be written directly from D2RQ model
+     * @param type number representation of output format
+     * @return true for RDF / XML, Turtle, N-Triples and binary RDF
+     */
+    public boolean isDirectType(int type) {
+        return type == TYPE_RDFXML || type == TYPE_TURTLE || type == TYPE_NTRIPLES || type == TYPE_BINARY;
+    }
+
+    /**
+     * Returns name of RDF syntax used by dump for given output format
+     * @param type number representation of output format
+     * @return name of RDF syntax
+     */
+    private String dumpFormat(int type) {
+        switch (type) {
+            case TYPE_RDFXML:
+                return "RDF/XML";
+            case TYPE_TURTLE:
+                return "TURTLE";
+            case TYPE_BINARY:
+                return "BINARY";
+            default:
+                return "N-TRIPLE";
         }
+    }
+
+    /**
+     * Returns output file, ".gz" is appended to compressed file
+     * @return output file
+     */
+    private File outputFile() {
+        return outputFile(output);
+    }
+
+    /**
+     * Returns file of given output path, ".gz" is appended to compressed file
+     * @param path output path
+     * @return output file
+     */
+    private File outputFile(String path) {
+        if (compression != COMPRESSION_NONE && !path.endsWith(".gz")) {
+            return new File(path + ".gz");
+        }
+        return new File(path);
+    }
+
+    /**
+     * Opens buffered output file compressed by selected compression. Compressed file
+     * opened for appending gets new gzip members, so it stays readable as one gzip file.
+     * @param file output file
+     * @param append true if data are appended to existing file
+     * @return output stream, caller has to close it
+     * @throws IOException if file can't be opened
+     */
+    private OutputStream openOutput(File file, boolean append) throws IOException {
+        return compress(new FileOutputStream(file, append));
+    }
+
+    /**
+     * Wraps output stream by selected compression and buffer
+     * @param fout output stream
+     * @return buffered output stream, closing it closes given stream
+     * @throws IOException if compression can't be started
+     */
+    private OutputStream compress(OutputStream fout) throws IOException {
+        if (compression == COMPRESSION_GZIP) {
+            fout = new GZIPOutputStream(fout, outputBufferSize);
+        } else if (compression == COMPRESSION_BLOCK_GZIP) {
+            fout = new ParallelGzipOutputStream(fout, compressionThreads);
+        }
+        return new BufferedOutputStream(fout, outputBufferSize);
+    }
+
+    /**
+     * Opens input file, file with ".gz" extension is decompressed
+     * @param file input file
+     * @return buffered input stream, caller has to close it
+     * @throws IOException if file can't be opened
+     */
+    private InputStream openInput(File file) throws IOException {
+        InputStream fin = new FileInputStream(file);
+        if (file.getName().endsWith(".gz")) {
+            fin = new GZIPInputStream(fin, outputBufferSize);
+        }
+        return new BufferedInputStream(fin, outputBufferSize);
+    }
+
+    /**
+     * Creates RDF dump configured by database parameters and settings of this transformer
+     * @param dbParameters database connection parameters
+     * @param baseURI base RDF URI
+     * @return configured RDF dump
+     */
+    private RDFDump createDump(DBParameters dbParameters, String baseURI) {
+        dbparam = dbParameters;
 
         RDFDump dump = new RDFDump();
+        statistics = dump.getStatistics();
+        registerStatistics(statistics);
         dump.setUser(dbparam.getUsername());
         dump.setPassword(dbparam.getPassword());
         dump.setDriverClass(dbparam.getDriver());
         dump.setJDBCURL(dbparam.getJdbc());
         dump.setFetchSize(dbparam.getFetchSize());
+        dump.setConnectionPool(dbparam.getConnectionPool());
+        if (progressListener != null) {
+            dump.setProgressListener(progressListener, progressInterval);
+        }
+        if (meteredConnections && dbparam.getConnectionPool() == null && dbparam.getJdbc() != null) {
+            // rows, SQL time and statements of job are seen only on pooled connections
+            ConnectionPool pool = new ConnectionPool(dbparam);
+            pool.setMaxSize(workers + 2);
+            dump.setPrivatePool(pool);
+        }
+        if (snapshotStore != null) {
+            dump.setSnapshotStore(snapshotStore, snapshotName);
+        }
+        dump.setSingleScan(singleScan);
+        if (deduplication == DEDUPLICATION_EXACT) {
+            dump.setFingerprints(FingerprintSet.exact(expectedTriples));
+        } else if (deduplication == DEDUPLICATION_APPROXIMATE) {
+            dump.setFingerprints(FingerprintSet.approximate(expectedTriples, falsePositiveRate));
+        }
+        lastSnapshot = null;
         dump.setOutputFile(output);
         dump.setBaseURI(baseURI);
-        
-        dump.doDump();
-        return dump.getByteArray();
+        if (mapping != null) {
+            dump.setMapURL(mapping);
+        }
+        return dump;
+    }
+
+    /**
+     * Registers statistics of transformation as MBean in platform MBean server, statistics
+     * of previous transformation with the same JMX name are replaced
+     * @param statistics statistics of transformation
+     */
+    private void registerStatistics(ExtractionStatistics statistics) {
+        if (jmxName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("dbtransfromer:type=Transformation,name=" + ObjectName.quote(jmxName));
+            synchronized (DBTransformerImpl.class) {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(statistics, name);
+            }
+        } catch (JMException e) {
+            // statistics are still available by getStatistics()
+        } catch (SecurityException e) {
+            // statistics are still available by getStatistics()
+        }
     }
 
     /**
@@ -173,106 +859,646 @@ public class DBTransformerImpl implements DBTransformer {
      * @throws OWLOntologyStorageException if error during saving ontology happened
      */
     public boolean convert(int type, byte[] byteArray) throws OWLOntologyCreationException, OWLOntologyStorageException {
-        
+        try {
+            return convert(type, new ByteArrayInputStream(byteArray));
+        } catch (IOException e) {
+            throw new OWLOntologyStorageException(e);
+        }
+    }
+
+    /**
+     * Convert RDF buffered by {@link #transformToBuffer(DBParameters, String)} into another format,
+     * RDF spilled to disk is read sequentially from temporary file
+     * @param type number representation of conversion type
+     * @param rdf RDF graph (N-Triples), it isn't deleted
+     * @return true if convert was successful
+     * @throws IOException if error during reading or writing happened
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    public boolean convert(int type, SpillBuffer rdf) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        InputStream in = rdf.openInputStream();
+        try {
+            return convert(type, in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Convert RDF read from input stream into another format
+     * @param type number representation of conversion type
+     * @param rdf RDF graph (N-Triples)
+     * @return true if convert was successful
+     */
+    private boolean convert(int type, InputStream rdf) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        if (type == TYPE_BINARY) {
+            // triples are parsed straight into binary sink, N-Triples have no prefixes
+            OutputStream fout = openOutput(outputFile(), false);
+            try {
+                TripleSink sink = new BinaryRDFSink(fout);
+                sink.start(new HashMap<String, String>());
+                try {
+                    ModelFactory.createModelForGraph(new SinkGraph(sink)).read(rdf, null, "N-TRIPLE");
+                } catch (JenaException e) {
+                    IOException cause = SinkGraph.ioCause(e);
+                    if (cause != null) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+                sink.finish();
+            } finally {
+                fout.close();
+            }
+            return true;
+        }
+        if (type == TYPE_NTRIPLES) {
+            // transformed data are N-Triples already
+            OutputStream fout = openOutput(outputFile(), false);
+            try {
+                byte[] buffer = new byte[outputBufferSize];
+                int read;
+                while ((read = rdf.read(buffer)) > 0) {
+                    fout.write(buffer, 0, read);
+                }
+            } finally {
+                fout.close();
+            }
+            return true;
+        }
+
         OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
-        ByteArrayInputStream bin = new ByteArrayInputStream(byteArray);
 
-        OWLOntology ontology = manager.loadOntologyFromOntologyDocument(bin);
+        if (statistics == null) {
+            statistics = new ExtractionStatistics();
+            registerStatistics(statistics);
+        }
+        long start = System.nanoTime();
+        OWLOntology ontology = manager.loadOntologyFromOntologyDocument(rdf);
+        statistics.addPhaseTime(ExtractionStatistics.PHASE_LOAD, System.nanoTime() - start);
 
-        IRI documentIRIoutput = IRI.create("file:" + output + "");
+        OWLOntologyFormat ontologyFormat = ontologyFormat(type);
+        start = System.nanoTime();
+        saveOntology(manager, ontology, ontologyFormat, output);
+        statistics.addPhaseTime(ExtractionStatistics.PHASE_SAVE, System.nanoTime() - start);
+        statistics.finish();
+        manager.removeOntology(ontology);
+        return true;
+    }
+
+    /**
+     * Returns OWL API format of given output format
+     * @param type number representation of output format
+     * @return ontology format, RDF / XML for unknown type
+     */
+    private OWLOntologyFormat ontologyFormat(int type) {
         switch (type) {
             case TYPE_RDFXML:
-                manager.saveOntology(ontology, new RDFXMLOntologyFormat(), documentIRIoutput);
-                break;
+                return new RDFXMLOntologyFormat();
             case TYPE_OWLXML:
-                manager.saveOntology(ontology, new OWLXMLOntologyFormat(), documentIRIoutput);
-                break;
+                return new OWLXMLOntologyFormat();
             case TYPE_DLSYNTAX:
-                manager.saveOntology(ontology, new DLSyntaxOntologyFormat(), documentIRIoutput);
-                break;
+                return new DLSyntaxOntologyFormat();
             case TYPE_TURTLE:
-                manager.saveOntology(ontology, new TurtleOntologyFormat(), documentIRIoutput);
-                break;
+                return new TurtleOntologyFormat();
             case TYPE_OWLFUNCTIONAL:
-                manager.saveOntology(ontology, new OWLFunctionalSyntaxOntologyFormat(), documentIRIoutput);
-                break;
+                return new OWLFunctionalSyntaxOntologyFormat();
             case TYPE_DLSYNTAXHTML:
-                manager.saveOntology(ontology, new DLSyntaxHTMLOntologyFormat(), documentIRIoutput);
-                break;
+                return new DLSyntaxHTMLOntologyFormat();
             case TYPE_KRSS:
-                manager.saveOntology(ontology, new KRSSOntologyFormat(), documentIRIoutput);
-                break;
+                return new KRSSOntologyFormat();
             case TYPE_KRSS2:
-                manager.saveOntology(ontology, new KRSS2OntologyFormat(), documentIRIoutput);
-                break;
+                return new KRSS2OntologyFormat();
             case TYPE_LATEX:
-                manager.saveOntology(ontology, new LatexOntologyFormat(), documentIRIoutput);
-                break;
+                return new LatexOntologyFormat();
             case TYPE_LATEXAXIOMSLIST:
-                manager.saveOntology(ontology, new LatexAxiomsListOntologyFormat(), documentIRIoutput);
-                break;
+                return new LatexAxiomsListOntologyFormat();
             case TYPE_MANCHESTER:
-                manager.saveOntology(ontology, new ManchesterOWLSyntaxOntologyFormat(), documentIRIoutput);
-                break;
+                return new ManchesterOWLSyntaxOntologyFormat();
             case TYPE_OBO:
-                manager.saveOntology(ontology, new OBOOntologyFormat(), documentIRIoutput);
-                break;
+                return new OBOOntologyFormat();
             case TYPE_PREFIXOWL:
-                manager.saveOntology(ontology, new PrefixOWLOntologyFormat(), documentIRIoutput);
-                break;
+                return new PrefixOWLOntologyFormat();
             default:
-                manager.saveOntology(ontology, new RDFXMLOntologyFormat(), documentIRIoutput);
+                return new RDFXMLOntologyFormat();
         }
-        manager.removeOntology(ontology);
-        return true;
     }
 
     /**
-     * Returns base URI
-     * @return base URI
+     * Saves ontology into output file in given format, file is compressed by selected compression
+     * @param manager manager of ontology
+     * @param ontology ontology
+     * @param ontologyFormat format of output
+     * @param path path of output file
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    private void saveOntology(OWLOntologyManager manager, OWLOntology ontology, OWLOntologyFormat ontologyFormat, String path) throws OWLOntologyStorageException {
+        if (compression == COMPRESSION_NONE) {
+            manager.saveOntology(ontology, ontologyFormat, IRI.create("file:" + path + ""));
+            return;
+        }
+        try {
+            OutputStream fout = openOutput(outputFile(path), false);
+            try {
+                manager.saveOntology(ontology, ontologyFormat, fout);
+            } finally {
+                fout.close();
+            }
+        } catch (IOException e) {
+            throw new OWLOntologyStorageException(e);
+        }
+    }
+
+    /**
+     * Convert binary RDF file (see {@link #TYPE_BINARY}) into another format. RDF formats
+     * are written directly from decoded triples, other formats are created by
+     * {@link #convert(int, SpillBuffer)}.
+     * @param type number representation of conversion type
+     * @param binaryFile binary RDF file, possibly compressed by gzip (".gz")
+     * @return true if convert was successful
+     * @throws IOException if error during reading or writing happened
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    public boolean convert(int type, File binaryFile) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        return convert(type, new BinaryRDFReader(openInput(binaryFile)));
+    }
+
+    /**
+     * Convert stored snapshot of extraction (see {@link #setSnapshotStore(SnapshotStore)}) into
+     * another format without access to database. Checksum of snapshot is verified first,
+     * snapshot file is read through memory mapping.
+     * @param type number representation of conversion type
+     * @param snapshot snapshot of extraction
+     * @return true if convert was successful
+     * @throws IOException if snapshot is damaged or error during reading or writing happened
+     * @throws OWLOntologyCreationException if unexpected error during convertion happened
+     * @throws OWLOntologyStorageException if error during saving ontology happened
+     */
+    public boolean convert(int type, SnapshotStore.Snapshot snapshot) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        SnapshotStore store = new SnapshotStore(snapshot.getFile().getParentFile());
+        if (!store.verify(snapshot)) {
+            throw new IOException("Snapshot " + snapshot + " is damaged");
+        }
+        return convert(type, store.open(snapshot));
+    }
+
+    /**
+     * Writes triples of binary RDF reader in given format and closes reader
+     * @param type number representation of conversion type
+     * @param reader reader of binary RDF
+     * @return true if convert was successful
+     */
+    private boolean convert(int type, BinaryRDFReader reader) throws IOException, OWLOntologyCreationException, OWLOntologyStorageException {
+        try {
+            if (isDirectType(type)) {
+                RDFDump dump = new RDFDump();
+                dump.setFormat(dumpFormat(type));
+                OutputStream fout = openOutput(outputFile(), false);
+                try {
+                    reader.readAll(dump.createSink(fout));
+                } finally {
+                    fout.close();
+                }
+                return true;
+            }
+            SpillBuffer rdf = createBuffer();
+            try {
+                reader.readAll(new NTriplesSink(rdf));
+                return convert(type, rdf);
+            } finally {
+                rdf.delete();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns base URI
+     * @return base URI
+     */
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Set base URI
+     * @param base base URI
+     */
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    /**
+     * returns output format
+     * @return output format
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * set output format
+     * @param format output format
+     */
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * returns D2RQ mapping file
+     * @return D2RQ mapping file
+     */
+    public String getMapping() {
+        return mapping;
+    }
+
+    /**
+     * set D2RQ mapping file
+     * @param mapping D2RQ mapping file
+     */
+    public void setMapping(String mapping) {
+        this.mapping = mapping;
+    }
+
+    /**
+     * returns size of buffer used for streaming output
+     * @return buffer size in bytes
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * set size of buffer used for streaming output
+     * @param outputBufferSize buffer size in bytes
+     */
+    public void setOutputBufferSize(int outputBufferSize) {
+        if (outputBufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    /**
+     * returns maximal size of RDF graph kept on heap before conversion
+     * @return heap budget in bytes
+     */
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * set maximal size of RDF graph kept on heap before conversion, larger graph
+     * is spilled into temporary file (see {@link SpillBuffer})
+     * @param heapBudget heap budget in bytes
+     */
+    public void setHeapBudget(long heapBudget) {
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException("Heap budget must not be negative");
+        }
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * returns directory of temporary files of spilled RDF graphs
+     * @return directory or null for default temporary directory
+     */
+    public File getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * set directory of temporary files of spilled RDF graphs
+     * @param spillDirectory directory or null for default temporary directory
+     */
+    public void setSpillDirectory(File spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * returns number of parallel extraction workers
+     * @return number of workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * set number of parallel extraction workers. If there is more than one worker,
+     * ClassMaps (tables) are extracted concurrently, every worker with its own database connection.
+     * @param workers number of workers
+     */
+    public void setWorkers(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Number of workers must be positive");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * returns cache of generated D2RQ mappings
+     * @return mapping cache or null if mappings aren't cached
+     */
+    public MappingCache getMappingCache() {
+        return mappingCache;
+    }
+
+    /**
+     * set cache of generated D2RQ mappings. If mapping file isn't given, generated
+     * mapping is reused while database schema doesn't change.
+     * @param mappingCache mapping cache, null disables caching
+     */
+    public void setMappingCache(MappingCache mappingCache) {
+        this.mappingCache = mappingCache;
+    }
+
+    /**
+     * returns compression of output files
+     * @return one of COMPRESSION_NONE, COMPRESSION_GZIP, COMPRESSION_BLOCK_GZIP
+     */
+    public int getCompression() {
+        return compression;
+    }
+
+    /**
+     * set compression of files written by transformer (output file, delta file and parts),
+     * ".gz" is appended to names of output file and parts. Streams passed to transform
+     * aren't compressed.
+     * @param compression one of COMPRESSION_NONE, COMPRESSION_GZIP, COMPRESSION_BLOCK_GZIP
+     */
+    public void setCompression(int compression) {
+        if (compression != COMPRESSION_NONE && compression != COMPRESSION_GZIP && compression != COMPRESSION_BLOCK_GZIP) {
+            throw new IllegalArgumentException("Unknown compression " + compression);
+        }
+        this.compression = compression;
+    }
+
+    /**
+     * Check if self-referencing foreign keys of generated mapping are read without join
+     * @return true if joins of foreign keys are replaced (see {@link SingleScanRewriter})
+     */
+    public boolean isSingleScan() {
+        return singleScan;
+    }
+
+    /**
+     * set if bridges of foreign keys of generated mapping make URIs of referenced rows from
+     * foreign key columns instead of joining referenced tables (see {@link SingleScanRewriter}).
+     * D2RQ already does it for references into other tables, so only self-references (e.g.
+     * boss of employee) save their join query. Mapping files aren't rewritten, their
+     * joins don't have to follow foreign key constraints. It is disabled by default, rewritten
+     * bridge doesn't check that referenced row exists and only keys of the same
+     * non-character type are rewritten.
+     * @param singleScan true for rewriting of self-references
+     */
+    public void setSingleScan(boolean singleScan) {
+        this.singleScan = singleScan;
+    }
+
+    /**
+     * returns deduplication of extracted triples
+     * @return one of DEDUPLICATION_NONE, DEDUPLICATION_EXACT, DEDUPLICATION_APPROXIMATE
+     */
+    public int getDeduplication() {
+        return deduplication;
+    }
+
+    /**
+     * set deduplication of extracted triples, only the first occurrence of every triple
+     * is written. Fingerprints of triples (16 bytes, exact set needs 2-4 times more) are kept
+     * outside of heap, one set is shared by all parallel workers of transformation. Memory
+     * outside of heap is limited by -XX:MaxDirectMemorySize, which is maximum heap size
+     * unless it is set, so it has to be raised for very large exact deduplication.
+     * @param deduplication one of DEDUPLICATION_NONE, DEDUPLICATION_EXACT, DEDUPLICATION_APPROXIMATE
+     */
+    public void setDeduplication(int deduplication) {
+        if (deduplication != DEDUPLICATION_NONE && deduplication != DEDUPLICATION_EXACT && deduplication != DEDUPLICATION_APPROXIMATE) {
+            throw new IllegalArgumentException("Unknown deduplication " + deduplication);
+        }
+        this.deduplication = deduplication;
+    }
+
+    /**
+     * returns expected number of triples used for sizing of deduplication
+     * @return number of triples
+     */
+    public long getExpectedTriples() {
+        return expectedTriples;
+    }
+
+    /**
+     * set expected number of triples used for sizing of deduplication, exact set grows
+     * beyond it, false positive rate of approximate set holds only up to it
+     * @param expectedTriples number of triples
+     */
+    public void setExpectedTriples(long expectedTriples) {
+        if (expectedTriples <= 0) {
+            throw new IllegalArgumentException("Expected number of triples must be positive");
+        }
+        this.expectedTriples = expectedTriples;
+    }
+
+    /**
+     * returns rate of unique triples dropped by approximate deduplication
+     * @return false positive rate
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * set rate of unique triples dropped by approximate deduplication
+     * @param falsePositiveRate false positive rate between 0 and 1
+     */
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * returns number of threads compressing blocks in COMPRESSION_BLOCK_GZIP mode
+     * @return number of threads
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    /**
+     * set number of threads compressing blocks in COMPRESSION_BLOCK_GZIP mode
+     * @param compressionThreads number of threads
+     */
+    public void setCompressionThreads(int compressionThreads) {
+        if (compressionThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.compressionThreads = compressionThreads;
+    }
+
+    /**
+     * returns maximal number of triples in one part of output
+     * @return maximal number of triples, 0 if output isn't split by triples
+     */
+    public long getPartMaxTriples() {
+        return partMaxTriples;
+    }
+
+    /**
+     * set maximal number of triples in one part of output, output of
+     * {@link #export(int, DBParameters, String)} is split into parts if limit is set
+     * @param partMaxTriples maximal number of triples, 0 disables splitting by triples
+     */
+    public void setPartMaxTriples(long partMaxTriples) {
+        this.partMaxTriples = Math.max(0, partMaxTriples);
+    }
+
+    /**
+     * returns maximal size of one part of output
+     * @return maximal size in bytes, 0 if output isn't split by size
+     */
+    public long getPartMaxBytes() {
+        return partMaxBytes;
+    }
+
+    /**
+     * set maximal size of one part of output (serialized data before compression),
+     * output of {@link #export(int, DBParameters, String)} is split into parts if limit is set
+     * @param partMaxBytes maximal size in bytes, 0 disables splitting by size
+     */
+    public void setPartMaxBytes(long partMaxBytes) {
+        this.partMaxBytes = Math.max(0, partMaxBytes);
+    }
+
+    /**
+     * returns statistics of the last transformation (triples, allocated memory,
+     * garbage collections, use of term dictionary)
+     * @return statistics or null if nothing was transformed yet
+     */
+    public ExtractionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * returns name under which statistics are registered in platform MBean server
+     * @return JMX name or null if statistics aren't registered
+     */
+    public String getJmxName() {
+        return jmxName;
+    }
+
+    /**
+     * set name under which statistics of running or the last transformation are registered
+     * in platform MBean server ("dbtransfromer:type=Transformation,name=..."), transformers
+     * running at the same time should have different names. Registration is disabled
+     * by default, MBean stays registered until it is replaced by transformation with
+     * the same name, so names shouldn't be unique per transformer.
+     * @param jmxName JMX name, null disables registration
+     */
+    public void setJmxName(String jmxName) {
+        this.jmxName = jmxName;
+    }
+
+    /**
+     * Check if transformation opens its own connection pool, see {@link #setMeteredConnections(boolean)}
+     * @return true if connections are metered
+     */
+    public boolean isMeteredConnections() {
+        return meteredConnections;
+    }
+
+    /**
+     * set if transformation without connection pool in DBParameters reads database through its
+     * own {@link ConnectionPool} closed at the end of transformation. Only pooled connections
+     * measure rows and SQL time of every query and let cancelled {@link TransformationJob}
+     * cancel running SQL statement. Otherwise rows and current table are estimated from
+     * extracted triples and job stops at the next triple. Off by default.
+     * @param meteredConnections true for private connection pool
+     */
+    public void setMeteredConnections(boolean meteredConnections) {
+        this.meteredConnections = meteredConnections;
+    }
+
+    /**
+     * returns listener of progress of transformations
+     * @return progress listener or null
+     */
+    public ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * set listener of progress of transformations. Listener is notified periodically
+     * (see {@link #setProgressInterval(long)}) with current table, rows, triples, bytes and
+     * estimated time to end, and once more when transformation ends. Rows are measured only
+     * on pooled connections (see {@link #setMeteredConnections(boolean)}), by default they
+     * are estimated from extracted triples.
+     * @param progressListener progress listener, null disables reporting
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * returns interval between notifications of progress listener
+     * @return interval in milliseconds
+     */
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * set interval between notifications of progress listener
+     * @param progressInterval interval in milliseconds
      */
-    public String getBase() {
-        return base;
+    public void setProgressInterval(long progressInterval) {
+        this.progressInterval = Math.max(1, progressInterval);
     }
 
     /**
-     * Set base URI
-     * @param base base URI
+     * returns store of snapshots of extractions
+     * @return snapshot store or null if snapshots aren't stored
      */
-    public void setBase(String base) {
-        this.base = base;
+    public SnapshotStore getSnapshotStore() {
+        return snapshotStore;
     }
 
     /**
-     * returns output format
-     * @return output format
+     * set store of snapshots, every sequential extraction is then stored as new version
+     * of snapshot next to its output, so it can be converted again without database
+     * (see {@link #convert(int, SnapshotStore.Snapshot)}). Extraction isn't run in parallel
+     * while snapshots are stored.
+     * @param snapshotStore snapshot store, null disables snapshots
      */
-    public String getFormat() {
-        return format;
+    public void setSnapshotStore(SnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
     }
 
     /**
-     * set output format
-     * @param format output format
+     * returns name of stored snapshots
+     * @return name of snapshots
      */
-    public void setFormat(String format) {
-        this.format = format;
+    public String getSnapshotName() {
+        return snapshotName;
     }
 
     /**
-     * returns D2RQ mapping file
-     * @return D2RQ mapping file
+     * set name of stored snapshots
+     * @param snapshotName name of snapshots
      */
-    public String getMapping() {
-        return mapping;
+    public void setSnapshotName(String snapshotName) {
+        this.snapshotName = snapshotName;
     }
 
     /**
-     * set D2RQ mapping file
-     * @param mapping D2RQ mapping file
+     * returns snapshot stored by last transformation
+     * @return snapshot or null if last transformation didn't store snapshot
      */
-    public void setMapping(String mapping) {
-        this.mapping = mapping;
+    public SnapshotStore.Snapshot getLastSnapshot() {
+        return lastSnapshot;
     }
 
     /**
@@ -317,7 +1543,11 @@ public class DBTransformerImpl implements DBTransformer {
      */
     protected class RDFDump {
 
-        private ByteArrayOutputStream bout;
+        private static final String MAP_NAMESPACE = "file:tmp#";
+        private static final String INSTANCE_NAMESPACE = "";
+        private static final String VOCAB_NAMESPACE = "http://localhost/vocab/";
+        private static final int STATISTICS_INTERVAL = 8192;
+
         private String user = null;
         private String password = null;
         private String driverClass = null;
@@ -327,54 +1557,670 @@ public class DBTransformerImpl implements DBTransformer {
         private String format = "N-TRIPLE";
         private String outputFile = null;
         private Integer fetchSize = null;
+        private ConnectionPool connectionPool = null;
+        private final ExtractionStatistics statistics = new ExtractionStatistics();
+        /**
+         * Dictionary shared by N-Triples sinks, N-Triples terms don't depend on sink
+         */
+        private final TermDictionary dictionary = new TermDictionary();
+        private ProgressListener progressListener = null;
+        private long progressInterval;
+        private ProgressReporter reporter = null;
+        private ConnectionPool privatePool = null;
+        private final TransformationJob job = TransformationJob.current();
+        private SnapshotStore snapshotStore = null;
+        private String snapshotName = null;
+        private FingerprintSet fingerprints = null;
+        private boolean singleScan = false;
 
         /**
-         * Creates mapping, RDF model and write RDF model as RDF / XML
+         * Creates mapping, RDF model and write RDF model into given output stream
+         * in format set by {@link #setFormat(String)}
+         * @param out output stream for RDF model, it isn't closed
          * @throws dbtransformer.DBTransformerImpl.DumpParameterException
-         * @throws UnsupportedEncodingException
-         * @throws FileNotFoundException
+         * @throws IOException if error during writing happened
          */
-        public void doDump() throws DumpParameterException, UnsupportedEncodingException, FileNotFoundException {
-            Model mapModel = makeMapModel();
-            Mapping mapping = new MapParser(mapModel, baseURI()).parse();
-            Iterator it = mapping.databases().iterator();
-            bout = new ByteArrayOutputStream();
+        public void doDump(OutputStream out) throws DumpParameterException, IOException {
+            doDump(createSink(out));
+            out.flush();
+        }
+
+        /**
+         * Creates mapping, RDF model and pass all triples of RDF model into given sink.
+         * Triples are taken one by one directly from D2RQ graph.
+         * @param sink consumer of triples
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        public void doDump(TripleSink sink) throws DumpParameterException, IOException {
+            SnapshotStore.SnapshotSink snapshotSink = null;
+            FanOutSink fanOut = null;
+            try {
+                Model mapModel = makeMapModel();
+                if (progressListener != null) {
+                    startProgress(MappingSplitter.split(mapModel));
+                }
+                if (snapshotStore != null) {
+                    snapshotSink = snapshotStore.createSink(snapshotName);
+                    List<TripleSink> sinks = new ArrayList<TripleSink>();
+                    sinks.add(sink);
+                    sinks.add(snapshotSink);
+                    fanOut = new FanOutSink(sinks);
+                    sink = fanOut;
+                }
+                dumpMapping(mapModel, sink);
+                if (snapshotSink != null) {
+                    lastSnapshot = snapshotSink.getSnapshot();
+                }
+            } finally {
+                if (fanOut != null) {
+                    fanOut.close();
+                }
+                if (snapshotSink != null) {
+                    // unfinished snapshot is deleted
+                    snapshotSink.close();
+                }
+                finish();
+            }
+        }
+
+        /**
+         * Splits mapping into extraction units (one per ClassMap) and extracts them
+         * in parallel by given number of workers. Every worker uses its own database
+         * connection. N-Triples of all units are written into output stream in order
+         * of units, every unit is buffered in temporary file until previous units are written.
+         * @param out output stream for RDF model, it isn't closed
+         * @param workers number of parallel workers
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        public void doParallelDump(OutputStream out, int workers) throws DumpParameterException, IOException {
+            try {
+                List<ExtractionUnit> units = extractionUnits(workers);
+                startProgress(units);
+                dumpUnits(units, out, workers);
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * Creates mapping, RDF model and writes triples into numbered part files in format
+         * of this dump. Name of output file without extension is used as prefix of parts
+         * and manifest.
+         * @param outputFile output file, parts are placed into its directory
+         * @param maxTriples maximal number of triples in part, 0 for no limit
+         * @param maxBytes maximal size of part in bytes, 0 for no limit
+         * @return manifest of written parts
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        public PartManifest doRollingDump(File outputFile, long maxTriples, long maxBytes) throws DumpParameterException, IOException {
+            String prefix = outputFile.getName();
+            if (prefix.endsWith(".gz")) {
+                prefix = prefix.substring(0, prefix.length() - 3);
+            }
+            if (prefix.endsWith(fileExtension())) {
+                prefix = prefix.substring(0, prefix.length() - fileExtension().length());
+            }
+            File directory = outputFile.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new FileNotFoundException("Can't create directory " + directory);
+            }
+            String extension = fileExtension() + (compression != COMPRESSION_NONE ? ".gz" : "");
+            RollingFileSink sink = new RollingFileSink(directory, prefix, extension, maxTriples, maxBytes) {
+
+                @Override
+                protected TripleSink createPartSink(OutputStream out) {
+                    return createSink(out);
+                }
+
+                @Override
+                protected OutputStream wrap(OutputStream out) throws IOException {
+                    return compress(out);
+                }
+            };
+            boolean done = false;
+            try {
+                doDump(sink);
+                done = true;
+            } finally {
+                sink.close();
+                if (!done && cancelled()) {
+                    sink.delete();
+                }
+            }
+            return sink.getManifest();
+        }
+
+        /**
+         * Extracts only rows added or changed since previous run. Units are restricted
+         * by watermarks of their tables and extracted in parallel, new watermarks are
+         * stored after all data are written.
+         * @param out output stream for RDF model (N-Triples), it isn't closed
+         * @param tracker watermarks of tables
+         * @param workers number of parallel workers
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        public void doDeltaDump(OutputStream out, WatermarkTracker tracker, int workers) throws DumpParameterException, IOException {
+            try {
+                List<ExtractionUnit> units = MappingSplitter.split(makeMapModel());
+                if (!units.isEmpty()) {
+                    ConnectedDB db = connect(units);
+                    try {
+                        units = tracker.restrict(units, db.connection());
+                    } catch (SQLException e) {
+                        throw new D2RQException("Can't read watermarks: " + e.getMessage(), e, D2RQException.D2RQ_SQLEXCEPTION);
+                    } finally {
+                        db.close();
+                    }
+                }
+                // sizes of tables don't tell how many rows were changed
+                startProgress(null);
+                dumpUnits(units, out, workers);
+            } finally {
+                finish();
+            }
+            tracker.commit();
+        }
+
+        /**
+         * Extracts units in parallel and writes their N-Triples into output stream in order of units
+         * @param units extraction units
+         * @param out output stream for RDF model, it isn't closed
+         * @param workers number of parallel workers
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        private void dumpUnits(List<ExtractionUnit> units, OutputStream out, int workers) throws DumpParameterException, IOException {
+            ExecutorService executor = Executors.newFixedThreadPool(workers);
+            List<Future<File>> results = new ArrayList<Future<File>>();
+            try {
+                for (ExtractionUnit unit : units) {
+                    results.add(executor.submit(new UnitDump(unit, null)));
+                }
+                byte[] buffer = new byte[outputBufferSize];
+                for (int i = 0; i < results.size(); i++) {
+                    File file = waitFor(results.get(i));
+                    checkCancelled();
+                    FileInputStream fin = new FileInputStream(file);
+                    try {
+                        int read;
+                        while ((read = fin.read(buffer)) > 0) {
+                            out.write(buffer, 0, read);
+                            statistics.addBytesWritten(read);
+                        }
+                    } finally {
+                        fin.close();
+                        file.delete();
+                    }
+                }
+                out.flush();
+            } finally {
+                executor.shutdownNow();
+                deleteFinished(results);
+            }
+        }
+
+        /**
+         * Splits mapping into extraction units (one per ClassMap) and extracts them
+         * in parallel into separate files in given directory. File name is derived from
+         * name of ClassMap and format of dump.
+         * @param directory output directory
+         * @param workers number of parallel workers
+         * @return created files in order of units
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        public List<File> doParallelDump(File directory, int workers) throws DumpParameterException, IOException {
+            ExecutorService executor = Executors.newFixedThreadPool(workers);
+            List<Future<File>> results = new ArrayList<Future<File>>();
+            List<File> files = new ArrayList<File>();
+            boolean done = false;
+            try {
+                List<ExtractionUnit> units = extractionUnits(workers);
+                startProgress(units);
+                for (ExtractionUnit unit : units) {
+                    results.add(executor.submit(new UnitDump(unit, directory)));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    files.add(waitFor(results.get(i)));
+                }
+                done = true;
+            } finally {
+                executor.shutdownNow();
+                if (!done && cancelled()) {
+                    // running units delete their files themselves
+                    deleteFinished(results);
+                }
+                finish();
+            }
+            return files;
+        }
+
+        /**
+         * Starts reporting of progress if progress listener is set
+         * @param units extraction units used for estimate of rows, null if estimate isn't possible
+         */
+        private void startProgress(List<ExtractionUnit> units) {
+            if (progressListener == null) {
+                return;
+            }
+            reporter = new ProgressReporter(progressListener, statistics, units == null ? -1 : estimateRows(units));
+            reporter.start(progressInterval);
+        }
+
+        /**
+         * Estimates number of rows of tables of extraction units from database statistics
+         * @param units extraction units
+         * @return estimated number of rows or -1 if database doesn't provide statistics
+         */
+        private long estimateRows(List<ExtractionUnit> units) {
+            Set<String> tables = new HashSet<String>();
+            for (ExtractionUnit unit : units) {
+                if (unit.getTable() != null) {
+                    tables.add(unit.getTable());
+                }
+            }
+            if (tables.isEmpty()) {
+                return -1;
+            }
+            long total = -1;
+            ConnectedDB db = connect(units);
+            try {
+                for (String table : tables) {
+                    long rows = SchemaMetadata.estimateRows(db.connection(), table);
+                    if (rows >= 0) {
+                        total = Math.max(total, 0) + rows;
+                    }
+                }
+            } catch (SQLException e) {
+                // estimate is only informative
+                return -1;
+            } finally {
+                db.close();
+            }
+            return total;
+        }
+
+        /**
+         * Ends statistics and reporting of progress and closes private connection pool
+         */
+        private void finish() {
+            statistics.finish();
+            if (reporter != null) {
+                reporter.stop();
+                reporter = null;
+            }
+            if (privatePool != null) {
+                privatePool.close();
+                privatePool = null;
+                connectionPool = null;
+            }
+        }
+
+        /**
+         * Splits mapping into extraction units. If partition threshold is set, units
+         * of large tables are further split by ranges of primary key.
+         * @param workers number of parallel workers, used as default number of partitions
+         * @return extraction units
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         */
+        private List<ExtractionUnit> extractionUnits(int workers) throws DumpParameterException {
+            List<ExtractionUnit> units = MappingSplitter.split(makeMapModel());
+            if (dbparam.getPartitionThreshold() <= 0 || units.isEmpty()) {
+                return units;
+            }
+            int partitions = dbparam.getPartitions() > 0 ? dbparam.getPartitions() : workers;
+            ConnectedDB db = connect(units);
+            try {
+                return new KeyRangePartitioner(db.connection(), dbparam.getPartitionThreshold(), partitions).partition(units);
+            } catch (SQLException e) {
+                throw new D2RQException("Can't read key ranges: " + e.getMessage(), e, D2RQException.D2RQ_SQLEXCEPTION);
+            } finally {
+                db.close();
+            }
+        }
+
+        /**
+         * Opens connection to database of extraction units
+         * @param units extraction units, at least one
+         * @return connected database, caller has to close it
+         */
+        private ConnectedDB connect(List<ExtractionUnit> units) {
+            Mapping unitMapping = parseMapping(units.get(0).getMapModel());
+            return ((Database) unitMapping.databases().iterator().next()).connectedDB();
+        }
+
+        /**
+         * Waits for result of unit extraction
+         * @param result future result of worker
+         * @return file with extracted unit
+         * @throws dbtransformer.DBTransformerImpl.DumpParameterException
+         * @throws IOException if error during writing happened
+         */
+        private File waitFor(Future<File> result) throws DumpParameterException, IOException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                checkCancelled();
+                throw new InterruptedIOException("Transformation was interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof DumpParameterException) {
+                    throw (DumpParameterException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause.toString());
+            }
+        }
+
+        /**
+         * Check if job of this dump is cancelled
+         * @return true if dump runs in cancelled job
+         */
+        private boolean cancelled() {
+            return job != null && job.isCancelled();
+        }
+
+        /**
+         * Throws exception if job of this dump is cancelled
+         * @throws InterruptedIOException if job is cancelled
+         */
+        private void checkCancelled() throws InterruptedIOException {
+            if (job != null) {
+                job.checkCancelled();
+            }
+        }
+
+        /**
+         * Deletes files of units which were finished but not written
+         */
+        private void deleteFinished(List<Future<File>> results) {
+            for (Future<File> result : results) {
+                if (result.isDone() && !result.isCancelled()) {
+                    try {
+                        result.get().delete();
+                    } catch (Exception e) {
+                        // failed unit has no file
+                    }
+                }
+            }
+        }
+
+        /**
+         * Creates D2RQ model from given mapping and pass all its triples into given sink
+         * @param mapModel D2RQ mapping
+         * @param sink consumer of triples
+         * @return number of triples
+         * @throws IOException if error during writing happened
+         */
+        private long dumpMapping(Model mapModel, TripleSink sink) throws IOException {
+            long allocated = ExtractionStatistics.currentThreadAllocatedBytes();
+            long count = 0;
+            long reported = 0;
+            long rows = 0;
+            long reportedRows = 0;
+            Map<String, String> tables = MappingSplitter.tablesByUriPrefix(mapModel);
+            long extraction = 0;
+            long write = 0;
+            long time = System.nanoTime();
+            Mapping mapping = parseMapping(mapModel);
+            Model d2rqModel = new ModelD2RQ(mapping);
+            DeduplicatingSink deduplicating = null;
+            if (fingerprints != null) {
+                deduplicating = new DeduplicatingSink(sink, fingerprints);
+                sink = deduplicating;
+            }
+            statistics.addPhaseTime(ExtractionStatistics.PHASE_MAPPING, System.nanoTime() - time);
+            ExtractionStatistics.bind(statistics);
+            try {
+                sink.start(d2rqModel.getNsPrefixMap());
+                time = System.nanoTime();
+                ExtendedIterator<Triple> triples = d2rqModel.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+                try {
+                    while (triples.hasNext()) {
+                        checkCancelled();
+                        Triple triple = triples.next();
+                        long extracted = System.nanoTime();
+                        extraction += extracted - time;
+                        sink.add(triple);
+                        time = System.nanoTime();
+                        write += time - extracted;
+                        // every row of ClassMap with class gives one rdf:type triple
+                        if (triple.getPredicate().equals(RDF.Nodes.type) && ++rows - reportedRows == STATISTICS_INTERVAL) {
+                            statistics.addExtractedRows(tableOf(triple.getSubject(), tables), rows - reportedRows);
+                            reportedRows = rows;
+                        }
+                        if (++count - reported == STATISTICS_INTERVAL) {
+                            // statistics are watched during transformation
+                            statistics.add(count - reported, 0);
+                            statistics.addPhaseTime(ExtractionStatistics.PHASE_EXTRACTION, extraction);
+                            statistics.addPhaseTime(ExtractionStatistics.PHASE_WRITE, write);
+                            reported = count;
+                            extraction = 0;
+                            write = 0;
+                        }
+                    }
+                    extraction += System.nanoTime() - time;
+                } catch (RuntimeException e) {
+                    // D2RQ reports cancelled statement as failure of query
+                    checkCancelled();
+                    throw e;
+                } finally {
+                    triples.close();
+                }
+                time = System.nanoTime();
+                sink.finish();
+                write += System.nanoTime() - time;
+            } finally {
+                ExtractionStatistics.bind(null);
+                d2rqModel.close();
+                if (deduplicating != null) {
+                    statistics.addDuplicates(deduplicating.getDuplicates());
+                }
+                statistics.addPhaseTime(ExtractionStatistics.PHASE_EXTRACTION, extraction);
+                statistics.addPhaseTime(ExtractionStatistics.PHASE_WRITE, write);
+                statistics.addExtractedRows(null, rows - reportedRows);
+                long now = ExtractionStatistics.currentThreadAllocatedBytes();
+                statistics.add(count - reported, allocated < 0 || now < 0 ? -1 : now - allocated);
+            }
+            return count;
+        }
 
+        /**
+         * Finds table of row from URI of its subject
+         * @param subject subject of triple
+         * @param tables map constant beginning of URI pattern -> table (see {@link MappingSplitter#tablesByUriPrefix(Model)})
+         * @return table or null if subject doesn't match URI pattern of any ClassMap
+         */
+        private String tableOf(Node subject, Map<String, String> tables) {
+            if (!subject.isURI()) {
+                return null;
+            }
+            String uri = subject.getURI();
+            String base = baseURI();
+            String table = null;
+            int longest = -1;
+            for (Map.Entry<String, String> entry : tables.entrySet()) {
+                String prefix = entry.getKey();
+                // relative patterns are resolved against base URI
+                int length = uri.startsWith(prefix) ? prefix.length()
+                        : uri.startsWith(base) && uri.startsWith(prefix, base.length()) ? base.length() + prefix.length() : -1;
+                if (length > longest) {
+                    longest = length;
+                    table = entry.getValue();
+                }
+            }
+            return table;
+        }
 
+        /**
+         * Parses D2RQ mapping and sets up its databases for streaming by their {@link SQLDialect}.
+         * If connection pool is set, databases with JDBC URL of pooled database are redirected to the pool.
+         * @param mapModel D2RQ mapping
+         * @return parsed mapping
+         */
+        private Mapping parseMapping(Model mapModel) {
+            if (connectionPool != null && connectionPool.getJdbc() != null) {
+                List<Statement> dsns = mapModel.listStatements(null, D2RQ.jdbcDSN, connectionPool.getJdbc()).toList();
+                for (Statement s : dsns) {
+                    mapModel.remove(s);
+                    mapModel.add(s.getSubject(), D2RQ.jdbcDSN, connectionPool.getURL());
+                }
+            }
+            Mapping mapping = new MapParser(mapModel, baseURI()).parse();
+            Iterator it = mapping.databases().iterator();
             while (it.hasNext()) {
                 Database db = (Database) it.next();
                 db.setResultSizeLimit(Database.NO_LIMIT);
+                String dsn = realJDBCDSN(db.getJDBCDSN());
+                SQLDialect dialect = SQLDialect.forDriver(dsn != null && dsn.equals(this.jdbcURL) ? this.driverClass : null, dsn);
+                int requested;
                 if (this.fetchSize != null) {
-                    db.setFetchSize(this.fetchSize.intValue());
+                    requested = this.fetchSize.intValue();
+                } else if (db.getFetchSize() != Database.NO_FETCH_SIZE) {
+                    requested = db.getFetchSize();
                 } else {
-                    if (db.getFetchSize() == Database.NO_FETCH_SIZE) {
-                        db.setFetchSize(db.getJDBCDSN() != null && db.getJDBCDSN().contains(":mysql:") ? Integer.MIN_VALUE : dbparam.getFetchSize());
-                    }
+                    requested = dbparam.getFetchSize();
+                }
+                db.setFetchSize(dialect.fetchSize(requested));
+                Properties properties = dialect.connectionProperties();
+                for (String name : properties.stringPropertyNames()) {
+                    db.setConnectionProperty(name, properties.getProperty(name));
                 }
             }
+            return mapping;
+        }
 
-            Model d2rqModel = new ModelD2RQ(mapping);
-            String absoluteBaseURI = MapParser.absolutizeURI(baseURI());
-            RDFWriter writer = d2rqModel.getWriter(this.format);
-            if (this.format.equals("RDF/XML") || this.format.equals("RDF/XML-ABBREV")) {
-                writer.setProperty("showXmlDeclaration", "true");
-                if (this.baseURI != null) {
-                    writer.setProperty("xmlbase", this.baseURI);
+        /**
+         * Returns JDBC URL of real database
+         * @param dsn JDBC URL from mapping, possibly URL of connection pool
+         * @return JDBC URL of database behind connection pool or given URL
+         */
+        private String realJDBCDSN(String dsn) {
+            ConnectionPool pool = dsn == null ? null : ConnectionPool.forURL(dsn);
+            return pool == null ? dsn : pool.getJdbc();
+        }
+
+        /**
+         * Task extracting one unit into file
+         */
+        private class UnitDump implements Callable<File> {
+
+            private final ExtractionUnit unit;
+            private final File directory;
+
+            /**
+             * Creates new task
+             * @param unit extracted unit
+             * @param directory output directory, if null temporary N-Triples file is used
+             */
+            UnitDump(ExtractionUnit unit, File directory) {
+                this.unit = unit;
+                this.directory = directory;
+            }
+
+            public File call() throws IOException {
+                File file;
+                if (directory == null) {
+                    file = File.createTempFile("dbtransformer-" + unit.getName() + "-", ".nt");
+                } else {
+                    file = new File(directory, unit.getName() + fileExtension() + (compression != COMPRESSION_NONE ? ".gz" : ""));
+                }
+                OutputStream fout = directory == null
+                        ? new BufferedOutputStream(new FileOutputStream(file), outputBufferSize)
+                        : openOutput(file, false);
+                boolean done = false;
+                TransformationJob.bind(job);
+                try {
+                    statistics.setCurrentTable(unit.getName());
+                    long start = System.nanoTime();
+                    long triples = dumpMapping(unit.getMapModel(), directory == null ? new NTriplesSink(fout, dictionary) : createSink(fout));
+                    statistics.addUnit(unit.getName(), triples, System.nanoTime() - start);
+                    done = true;
+                } finally {
+                    TransformationJob.bind(null);
+                    fout.close();
+                    if (!done && (directory == null || cancelled())) {
+                        file.delete();
+                    }
                 }
-                writer.write(d2rqModel, bout, absoluteBaseURI);
-            } else {
-                writer.write(d2rqModel, bout, absoluteBaseURI);
+                return file;
             }
+        }
+
+        /**
+         * Returns statistics of this dump
+         * @return statistics
+         */
+        ExtractionStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Check if dump is written as N-Triples
+         * @return true for N-Triples format
+         */
+        boolean isNTriples() {
+            return this.format.equals("N-TRIPLE");
+        }
 
+        /**
+         * Returns file extension for format of this dump
+         * @return file extension including dot
+         */
+        private String fileExtension() {
+            if (this.format.equals("RDF/XML") || this.format.equals("RDF/XML-ABBREV")) {
+                return ".rdf";
+            }
+            if (this.format.equals("TURTLE") || this.format.equals("N3")) {
+                return ".ttl";
+            }
+            if (this.format.equals("BINARY")) {
+                return ".rdfb";
+            }
+            return ".nt";
+        }
 
-            d2rqModel.close();
+        /**
+         * Creates sink writing triples in format of this dump
+         * @param out output stream
+         * @return sink for given format
+         */
+        private TripleSink createSink(OutputStream out) {
+            return createSink(out, this.format);
         }
 
-        /*
-         * Returns byte array from output stream
+        /**
+         * Creates sink writing triples in given format
+         * @param out output stream
+         * @param format name of RDF syntax
+         * @return sink for given format
          */
-        public byte[] getByteArray() {
-            return bout.toByteArray();
+        private TripleSink createSink(OutputStream out, String format) {
+            out = new CountingOutputStream(out, statistics);
+            if (format.equals("RDF/XML") || format.equals("RDF/XML-ABBREV")) {
+                return new RDFXMLSink(out);
+            }
+            if (format.equals("TURTLE") || format.equals("N3")) {
+                // Turtle terms are abbreviated by prefixes of the sink, so dictionary isn't shared
+                TermDictionary turtleDictionary = new TermDictionary();
+                statistics.addDictionary(turtleDictionary);
+                return new TurtleSink(out, turtleDictionary);
+            }
+            if (format.equals("BINARY")) {
+                return new BinaryRDFSink(out);
+            }
+            statistics.addDictionary(dictionary);
+            return new NTriplesSink(out, dictionary);
         }
 
         /**
@@ -383,6 +2229,36 @@ public class DBTransformerImpl implements DBTransformer {
          * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
          */
         private Model makeMapModel() throws DumpParameterException {
+            long start = System.nanoTime();
+            try {
+                Model mapModel = loadMapModel();
+                if (singleScan && !hasMappingFile()) {
+                    // joins of generated mapping follow foreign keys, so referenced rows exist
+                    try {
+                        Connection connection = openConnection();
+                        try {
+                            SingleScanRewriter.rewrite(mapModel, connection);
+                        } finally {
+                            connection.close();
+                        }
+                    } catch (SQLException e) {
+                        // rewriting is only optimization, mapping is used as it is
+                        System.err.println("Mapping wasn't rewritten for single scan: " + e.getMessage());
+                    }
+                }
+                return mapModel;
+            } finally {
+                statistics.addPhaseTime(ExtractionStatistics.PHASE_MAPPING, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Loads mapping file or generates mapping of database, generated mapping is taken
+         * from mapping cache if it is set
+         * @return map model
+         * @throws dbtransfromer.DBTransformerImpl.DumpParameterException if parameters are invalid
+         */
+        private Model loadMapModel() throws DumpParameterException {
             if (hasMappingFile()) {
                 return FileManager.get().loadModel(this.mapURL, baseURI(), null);
             }
@@ -399,10 +2275,62 @@ public class DBTransformerImpl implements DBTransformer {
             if (this.driverClass != null) {
                 gen.setJDBCDriverClass(this.driverClass);
             }
-            gen.setMapNamespaceURI("file:tmp#");
-            gen.setInstanceNamespaceURI("");
-            gen.setVocabNamespaceURI("http://localhost/vocab/");
-            return gen.mappingModel(baseURI(), System.err);
+            gen.setMapNamespaceURI(MAP_NAMESPACE);
+            gen.setInstanceNamespaceURI(INSTANCE_NAMESPACE);
+            gen.setVocabNamespaceURI(VOCAB_NAMESPACE);
+            if (mappingCache == null) {
+                return gen.mappingModel(baseURI(), System.err);
+            }
+            String key = null;
+            try {
+                key = mappingCacheKey();
+                Model cached = mappingCache.load(key);
+                if (cached != null) {
+                    return cached;
+                }
+            } catch (SQLException e) {
+                // cache is only optimization, mapping is generated as usual
+            } catch (IOException e) {
+                // cache is only optimization, mapping is generated as usual
+            }
+            Model mapModel = gen.mappingModel(baseURI(), System.err);
+            if (key != null) {
+                try {
+                    mappingCache.store(key, mapModel);
+                } catch (IOException e) {
+                    // mapping will be generated again next time
+                }
+            }
+            return mapModel;
+        }
+
+        /**
+         * Computes key of generated mapping in mapping cache
+         * @return cache key
+         * @throws SQLException if error during reading metadata happened
+         */
+        private String mappingCacheKey() throws SQLException {
+            Connection connection = openConnection();
+            try {
+                return mappingCache.key(connection, SQLDialect.forDriver(this.driverClass, this.jdbcURL), this.jdbcURL, this.user, baseURI(),
+                        MAP_NAMESPACE, INSTANCE_NAMESPACE, VOCAB_NAMESPACE);
+            } finally {
+                connection.close();
+            }
+        }
+
+        /**
+         * Opens connection to database of generated mapping, pooled connection if pool is set
+         * @return connection, it has to be closed
+         * @throws SQLException if connection can't be opened
+         */
+        private Connection openConnection() throws SQLException {
+            if (this.driverClass != null) {
+                Database.registerJDBCDriverIfPresent(this.driverClass);
+            }
+            return connectionPool != null
+                    ? connectionPool.getConnection()
+                    : DriverManager.getConnection(this.jdbcURL, this.user, this.password);
         }
 
         /**
@@ -467,6 +2395,60 @@ public class DBTransformerImpl implements DBTransformer {
             this.fetchSize = fetchSize;
         }
 
+        /**
+         * Set pool of database connections
+         * @param connectionPool connection pool, null if connections aren't pooled
+         */
+        void setConnectionPool(ConnectionPool connectionPool) {
+            this.connectionPool = connectionPool;
+        }
+
+        /**
+         * Set listener of progress of dump
+         * @param progressListener progress listener, null disables reporting
+         * @param progressInterval interval between notifications in milliseconds
+         */
+        void setProgressListener(ProgressListener progressListener, long progressInterval) {
+            this.progressListener = progressListener;
+            this.progressInterval = progressInterval;
+        }
+
+        /**
+         * Set connection pool used only by this dump, pool is closed when dump ends.
+         * Queries of pooled connections are measured, so rows can be reported.
+         * @param privatePool connection pool
+         */
+        void setPrivatePool(ConnectionPool privatePool) {
+            this.privatePool = privatePool;
+            this.connectionPool = privatePool;
+        }
+
+        /**
+         * Set store of snapshots, all triples of sequential dump are stored as new snapshot
+         * @param snapshotStore snapshot store
+         * @param snapshotName name of snapshot
+         */
+        void setSnapshotStore(SnapshotStore snapshotStore, String snapshotName) {
+            this.snapshotStore = snapshotStore;
+            this.snapshotName = snapshotName;
+        }
+
+        /**
+         * Set if joins of foreign keys in generated mapping are replaced, so every table is read once
+         * @param singleScan true for one query per table
+         */
+        void setSingleScan(boolean singleScan) {
+            this.singleScan = singleScan;
+        }
+
+        /**
+         * Set fingerprints of extracted triples, triples already in set are dropped
+         * @param fingerprints set shared by all extraction units of dump
+         */
+        void setFingerprints(FingerprintSet fingerprints) {
+            this.fingerprints = fingerprints;
+        }
+
         /**
          * set D2RQ mapping file
          * @param mapURL D2RQ mapping file
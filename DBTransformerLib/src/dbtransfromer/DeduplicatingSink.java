@@ -0,0 +1,138 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Triple sink which drops triples passed before and sends only the first occurrence
+ * of every triple into inner sink. D2RQ produces the same triple several times when
+ * more property bridges or joins give identical statements. Triples are remembered
+ * as 128 bit fingerprints outside of heap (see {@link FingerprintSet}). In exact mode
+ * different triples are mixed up only by collision of fingerprints, in approximate mode
+ * memory is fixed and unique triple is dropped with given false positive rate as long
+ * as number of triples doesn't exceed expected number.
+ * Last Modified 17.10.2026
+ */
+public class DeduplicatingSink implements TripleSink {
+
+    /**
+     * Default expected number of triples
+     */
+    public static final long DEFAULT_EXPECTED_TRIPLES = 1000000;
+    /**
+     * Default rate of unique triples dropped in approximate mode
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.000001;
+    private static final long SEED1 = 0xcbf29ce484222325L;
+    private static final long SEED2 = 0x9e3779b97f4a7c15L;
+    private final TripleSink sink;
+    private final FingerprintSet fingerprints;
+    private final StringBuilder key = new StringBuilder();
+    private long duplicates = 0;
+
+    /**
+     * Creates new exact deduplicating sink
+     * @param sink inner sink
+     */
+    public DeduplicatingSink(TripleSink sink) {
+        this(sink, false, DEFAULT_EXPECTED_TRIPLES, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Creates new deduplicating sink
+     * @param sink inner sink
+     * @param approximate true for approximate mode with fixed memory
+     * @param expectedTriples expected number of triples, exact set grows beyond it
+     * @param falsePositiveRate rate of unique triples dropped in approximate mode
+     */
+    public DeduplicatingSink(TripleSink sink, boolean approximate, long expectedTriples, double falsePositiveRate) {
+        this(sink, approximate ? FingerprintSet.approximate(expectedTriples, falsePositiveRate) : FingerprintSet.exact(expectedTriples));
+    }
+
+    /**
+     * Creates new deduplicating sink with set of fingerprints shared by more sinks
+     * @param sink inner sink
+     * @param fingerprints fingerprints of passed triples
+     */
+    DeduplicatingSink(TripleSink sink, FingerprintSet fingerprints) {
+        this.sink = sink;
+        this.fingerprints = fingerprints;
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        sink.start(prefixes);
+    }
+
+    public void add(Triple triple) throws IOException {
+        key.setLength(0);
+        append(triple.getSubject());
+        append(triple.getPredicate());
+        append(triple.getObject());
+        long h1 = SEED1;
+        long h2 = SEED2;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            h1 = (h1 ^ c) * 0x100000001b3L;
+            h2 = Long.rotateLeft(h2 ^ (c * 0x87c37b91114253d5L), 31) * 0x4cf5ad432745937fL;
+        }
+        if (fingerprints.add(mix(h1), mix(h2 ^ key.length()))) {
+            sink.add(triple);
+        } else {
+            duplicates++;
+        }
+    }
+
+    public void finish() throws IOException {
+        sink.finish();
+    }
+
+    /**
+     * Appends node into key of triple, kind of node and all parts of literal are distinguished
+     */
+    private void append(Node node) {
+        if (node.isURI()) {
+            key.append('U').append(node.getURI());
+        } else if (node.isBlank()) {
+            key.append('B').append(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            key.append('L').append(node.getLiteralLexicalForm()).append('\u0000').append(node.getLiteralLanguage());
+            String datatype = node.getLiteralDatatypeURI();
+            if (datatype != null) {
+                key.append('\u0000').append(datatype);
+            }
+        } else {
+            key.append('N').append(node.toString());
+        }
+        key.append('\u0001');
+    }
+
+    /**
+     * Final mixing of hash (MurmurHash3 finalizer)
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * returns number of dropped triples
+     * @return number of duplicates
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * returns number of bytes used by fingerprints outside of heap
+     * @return allocated bytes
+     */
+    public long getFingerprintMemory() {
+        return fingerprints.getMemory();
+    }
+}
@@ -0,0 +1,511 @@
+package dbtransfromer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instance of this class collects statistics of one transformation: number of triples,
+ * rows and bytes, time spent in phases of transformation, durations of tables, memory
+ * allocated by extracting threads, garbage collections and use of term dictionary.
+ * Statistics are updated during transformation and can be watched by JMX
+ * (see {@link ExtractionStatisticsMBean}).
+ * <p>
+ * Time of extraction contains SQL queries and generation of triples by D2RQ, SQL part
+ * is measured only on connections of {@link ConnectionPool}, otherwise it is reported
+ * as -1. Rows and current table are measured exactly on pooled connections, otherwise
+ * extraction loop counts rows by rdf:type triples. Durations of extraction units are
+ * measured when extraction is split into units (more workers or parts). Allocated memory
+ * is measured only on JVMs providing allocation counters of threads
+ * (com.sun.management.ThreadMXBean), otherwise it is reported as -1.
+ * Last Modified 17.10.2026
+ */
+public class ExtractionStatistics implements ExtractionStatisticsMBean {
+
+    /**
+     * Phase of loading or generation of D2RQ mapping
+     */
+    public static final int PHASE_MAPPING = 0;
+    /**
+     * Phase of extraction of triples from D2RQ model (SQL queries and generation of triples)
+     */
+    public static final int PHASE_EXTRACTION = 1;
+    /**
+     * Part of extraction spent in SQL queries and fetching of rows
+     */
+    public static final int PHASE_SQL = 2;
+    /**
+     * Phase of serialization of triples
+     */
+    public static final int PHASE_WRITE = 3;
+    /**
+     * Phase of loading of ontology by OWL API during conversion
+     */
+    public static final int PHASE_LOAD = 4;
+    /**
+     * Phase of saving of ontology by OWL API during conversion
+     */
+    public static final int PHASE_SAVE = 5;
+    private static final String[] PHASE_NAMES = {"mapping", "extraction", "sql", "write", "load", "save"};
+    private static final Method threadAllocatedBytes = allocationCounter();
+    private static final int ROWS_INTERVAL = 1024;
+    private static final ThreadLocal<ExtractionStatistics> current = new ThreadLocal<ExtractionStatistics>();
+    private final long startTime;
+    private final long startGcCount;
+    private final long startGcTime;
+    private final AtomicLong triples = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong extractedRows = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong[] phaseTimes = new AtomicLong[PHASE_NAMES.length];
+    private final Map<String, long[]> tables = new LinkedHashMap<String, long[]>();
+    private final Map<String, long[]> units = new LinkedHashMap<String, long[]>();
+    private volatile boolean rowsMeasured = false;
+    private volatile String currentTable = null;
+    private volatile boolean allocationMeasured = threadAllocatedBytes != null;
+    private final List<TermDictionary> dictionaries = new CopyOnWriteArrayList<TermDictionary>();
+    private long endTime = -1;
+    private long gcCount;
+    private long gcTime;
+
+    /**
+     * Creates statistics, measurement starts now
+     */
+    public ExtractionStatistics() {
+        startTime = System.currentTimeMillis();
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = new AtomicLong();
+        }
+        long[] gc = gcTotals();
+        startGcCount = gc[0];
+        startGcTime = gc[1];
+    }
+
+    /**
+     * Returns number of bytes allocated by current thread so far
+     * @return allocated bytes or -1 if JVM doesn't measure allocation
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (threadAllocatedBytes == null) {
+            return -1;
+        }
+        try {
+            return ((Long) threadAllocatedBytes.invoke(ManagementFactory.getThreadMXBean(),
+                    Long.valueOf(Thread.currentThread().getId()))).longValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Adds work done by one extracting thread
+     * @param triples number of produced triples
+     * @param allocated bytes allocated by thread during extraction, negative if unknown
+     */
+    public void add(long triples, long allocated) {
+        this.triples.addAndGet(triples);
+        if (allocated < 0) {
+            allocationMeasured = false;
+        } else {
+            allocatedBytes.addAndGet(allocated);
+        }
+    }
+
+    /**
+     * Adds time spent in phase
+     * @param phase one of PHASE_ constants
+     * @param nanos time in nanoseconds
+     */
+    public void addPhaseTime(int phase, long nanos) {
+        phaseTimes[phase].addAndGet(nanos);
+    }
+
+    /**
+     * Adds bytes of serialized triples
+     * @param bytes number of bytes
+     */
+    public void addBytesWritten(long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * Adds duplicate triples dropped during extraction
+     * @param duplicates number of duplicates
+     */
+    public void addDuplicates(long duplicates) {
+        this.duplicates.addAndGet(duplicates);
+    }
+
+    /**
+     * Adds rows read from table and time of SQL query and fetching
+     * @param table table or FROM clause of query
+     * @param rows number of rows
+     * @param nanos time in nanoseconds
+     */
+    public void addTable(String table, long rows, long nanos) {
+        rowsMeasured = true;
+        this.rows.addAndGet(rows);
+        phaseTimes[PHASE_SQL].addAndGet(nanos);
+        addTo(tables, table, rows, nanos);
+    }
+
+    /**
+     * Adds rows counted by extraction loop (see {@link #getRows()}), table becomes current
+     * table unless queries are measured on pooled connections
+     * @param table table of the last counted row, null if it isn't known
+     * @param rows number of rows
+     */
+    public void addExtractedRows(String table, long rows) {
+        extractedRows.addAndGet(rows);
+        if (table != null && !rowsMeasured) {
+            currentTable = table;
+        }
+    }
+
+    /**
+     * Adds extracted unit (table or its part) with its number of triples and time of extraction
+     * @param unit name of extraction unit
+     * @param triples number of triples
+     * @param nanos time in nanoseconds
+     */
+    public void addUnit(String unit, long triples, long nanos) {
+        addTo(units, unit, triples, nanos);
+    }
+
+    private synchronized void addTo(Map<String, long[]> map, String name, long count, long nanos) {
+        long[] values = map.get(name);
+        if (values == null) {
+            values = new long[2];
+            map.put(name, values);
+        }
+        values[0] += count;
+        values[1] += nanos;
+    }
+
+    /**
+     * Binds statistics to current thread, queries of pooled connections executed
+     * by thread are measured into them
+     * @param statistics statistics or null to unbind
+     */
+    static void bind(ExtractionStatistics statistics) {
+        if (statistics == null) {
+            current.remove();
+        } else {
+            current.set(statistics);
+        }
+    }
+
+    /**
+     * Returns statistics bound to current thread
+     * @return statistics or null
+     */
+    static ExtractionStatistics current() {
+        return current.get();
+    }
+
+    /**
+     * Starts counting of rows of query, table becomes current table
+     * @param table table or FROM clause of query, null if it isn't known
+     * @param nanos time of execution of query in nanoseconds
+     * @return counter of rows of result set
+     */
+    RowCounter count(String table, long nanos) {
+        currentTable = table;
+        return new RowCounter(table == null ? "?" : table, nanos);
+    }
+
+    /**
+     * Stops measurement of time and garbage collections
+     */
+    public synchronized void finish() {
+        if (endTime >= 0) {
+            return;
+        }
+        endTime = System.currentTimeMillis();
+        long[] gc = gcTotals();
+        gcCount = gc[0] - startGcCount;
+        gcTime = gc[1] - startGcTime;
+    }
+
+    /**
+     * Sums collection counts and times of all garbage collectors
+     * @return array {count, time in ms}
+     */
+    private static long[] gcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, gc.getCollectionCount());
+            totals[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return totals;
+    }
+
+    /**
+     * Finds HotSpot method returning bytes allocated by thread
+     */
+    private static Method allocationCounter() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+            if (!type.isInstance(bean)) {
+                return null;
+            }
+            Method enabled = type.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!((Boolean) enabled.invoke(bean)).booleanValue()) {
+                return null;
+            }
+            return type.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds term dictionary used by transformation, hits and misses of all dictionaries are summed
+     * @param dictionary term dictionary
+     */
+    void addDictionary(TermDictionary dictionary) {
+        if (!dictionaries.contains(dictionary)) {
+            dictionaries.add(dictionary);
+        }
+    }
+
+    public long getTriples() {
+        return triples.get();
+    }
+
+    public long getRows() {
+        if (rowsMeasured) {
+            return rows.get();
+        }
+        long extracted = extractedRows.get();
+        return extracted > 0 ? extracted : -1;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public long getTriplesPerSecond() {
+        return getTriples() * 1000 / Math.max(1, getElapsedTime());
+    }
+
+    /**
+     * returns time spent in phase
+     * @param phase one of PHASE_ constants
+     * @return time in milliseconds
+     */
+    public long getPhaseTime(int phase) {
+        return phaseTimes[phase].get() / 1000000;
+    }
+
+    public long getMappingTime() {
+        return getPhaseTime(PHASE_MAPPING);
+    }
+
+    public long getExtractionTime() {
+        return getPhaseTime(PHASE_EXTRACTION);
+    }
+
+    public long getSqlTime() {
+        return rowsMeasured ? getPhaseTime(PHASE_SQL) : -1;
+    }
+
+    public long getWriteTime() {
+        return getPhaseTime(PHASE_WRITE);
+    }
+
+    public long getLoadTime() {
+        return getPhaseTime(PHASE_LOAD);
+    }
+
+    public long getSaveTime() {
+        return getPhaseTime(PHASE_SAVE);
+    }
+
+    /**
+     * returns rows and time of SQL queries of tables
+     * @return map table -> {rows, time in milliseconds}
+     */
+    public synchronized Map<String, long[]> getTableStatistics() {
+        return copy(tables);
+    }
+
+    /**
+     * returns triples and time of extraction units
+     * @return map unit -> {triples, time in milliseconds}
+     */
+    public synchronized Map<String, long[]> getUnitStatistics() {
+        return copy(units);
+    }
+
+    public String[] getTableSummary() {
+        return summary(getTableStatistics(), " rows");
+    }
+
+    public String[] getUnitSummary() {
+        return summary(getUnitStatistics(), " triples");
+    }
+
+    public String getCurrentTable() {
+        return currentTable;
+    }
+
+    /**
+     * set table or extraction unit which is processed now
+     * @param currentTable name of table or unit
+     */
+    void setCurrentTable(String currentTable) {
+        this.currentTable = currentTable;
+    }
+
+    public synchronized boolean isFinished() {
+        return endTime >= 0;
+    }
+
+    private static Map<String, long[]> copy(Map<String, long[]> map) {
+        Map<String, long[]> copy = new LinkedHashMap<String, long[]>();
+        for (Map.Entry<String, long[]> entry : map.entrySet()) {
+            copy.put(entry.getKey(), new long[]{entry.getValue()[0], entry.getValue()[1] / 1000000});
+        }
+        return copy;
+    }
+
+    private static String[] summary(Map<String, long[]> map, String unit) {
+        List<String> lines = new ArrayList<String>();
+        for (Map.Entry<String, long[]> entry : map.entrySet()) {
+            lines.add(entry.getKey() + ": " + entry.getValue()[0] + unit + ", " + entry.getValue()[1] + " ms");
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    public long getAllocatedBytes() {
+        return allocationMeasured ? allocatedBytes.get() : -1;
+    }
+
+    public long getAllocatedBytesPerTriple() {
+        long allocated = getAllocatedBytes();
+        return allocated < 0 || getTriples() == 0 ? -1 : allocated / getTriples();
+    }
+
+    public long getAllocationRate() {
+        long allocated = getAllocatedBytes();
+        return allocated < 0 ? -1 : allocated * 1000 / Math.max(1, getElapsedTime());
+    }
+
+    public synchronized long getElapsedTime() {
+        return (endTime >= 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
+
+    public synchronized long getGcCount() {
+        return endTime >= 0 ? gcCount : gcTotals()[0] - startGcCount;
+    }
+
+    public synchronized long getGcTime() {
+        return endTime >= 0 ? gcTime : gcTotals()[1] - startGcTime;
+    }
+
+    public long getDictionaryHits() {
+        long hits = 0;
+        for (TermDictionary d : dictionaries) {
+            hits += d.getHits();
+        }
+        return hits;
+    }
+
+    public long getDictionaryMisses() {
+        long misses = 0;
+        for (TermDictionary d : dictionaries) {
+            misses += d.getMisses();
+        }
+        return misses;
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getTriples()).append(" triples in ").append(getElapsedTime()).append(" ms");
+        if (getAllocatedBytesPerTriple() >= 0) {
+            sb.append(", allocated ").append(getAllocatedBytes() / (1024 * 1024)).append(" MB (")
+                    .append(getAllocatedBytesPerTriple()).append(" B/triple, ")
+                    .append(getAllocationRate() / (1024 * 1024)).append(" MB/s)");
+        }
+        if (getDuplicates() > 0) {
+            sb.append(", dropped ").append(getDuplicates()).append(" duplicates");
+        }
+        if (getBytesWritten() > 0) {
+            sb.append(", written ").append(getBytesWritten() / 1024).append(" kB");
+        }
+        sb.append(", phases");
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            if (phaseTimes[i].get() > 0) {
+                sb.append(' ').append(PHASE_NAMES[i]).append(' ').append(getPhaseTime(i)).append(" ms");
+            }
+        }
+        if (getRows() >= 0) {
+            sb.append(", ").append(getRows()).append(" rows");
+        }
+        sb.append(", GC ").append(getGcCount()).append("x / ").append(getGcTime()).append(" ms");
+        if (!dictionaries.isEmpty()) {
+            sb.append(", dictionary hits ").append(getDictionaryHits()).append(" / misses ").append(getDictionaryMisses());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counter of rows and time of fetching of one result set, rows are added into
+     * statistics in batches, so they can be watched during transformation
+     */
+    class RowCounter {
+
+        private final String table;
+        private long elapsed;
+        private long rows = 0;
+        private long reported = 0;
+        private boolean finished = false;
+
+        RowCounter(String table, long elapsed) {
+            this.table = table;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Counts call of next() of result set
+         * @param row true if result set moved to next row
+         * @param nanos time of call in nanoseconds
+         */
+        void next(boolean row, long nanos) {
+            elapsed += nanos;
+            if (!row) {
+                finish();
+            } else if (++rows - reported == ROWS_INTERVAL) {
+                addTable(table, rows - reported, elapsed);
+                reported = rows;
+                elapsed = 0;
+            }
+        }
+
+        /**
+         * Adds rows not reported yet, result set was read or closed
+         */
+        void finish() {
+            if (!finished) {
+                finished = true;
+                addTable(table, rows - reported, elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dbtransfromer;
+
+/**
+ * The management interface of statistics of transformation. Statistics of running
+ * or the last transformation of {@link DBTransformerImpl} with JMX name are registered
+ * in platform MBean server under name "dbtransfromer:type=Transformation,name=..."
+ * (see {@link DBTransformerImpl#setJmxName(String)}).
+ * Last Modified 17.10.2026
+ */
+public interface ExtractionStatisticsMBean {
+
+    /**
+     * returns number of produced triples
+     * @return number of triples
+     */
+    public long getTriples();
+
+    /**
+     * returns number of rows read from database, rows of pooled connections are counted
+     * exactly, otherwise as rdf:type triples (one for every row of ClassMap with d2rq:class)
+     * @return number of rows or -1 if rows aren't measured
+     */
+    public long getRows();
+
+    /**
+     * returns table (FROM clause of query) or extraction unit processed now
+     * @return name of table or null if it isn't known
+     */
+    public String getCurrentTable();
+
+    /**
+     * returns number of bytes of serialized triples (before compression)
+     * @return number of bytes
+     */
+    public long getBytesWritten();
+
+    /**
+     * returns throughput of transformation
+     * @return triples per second
+     */
+    public long getTriplesPerSecond();
+
+    /**
+     * returns duration of transformation
+     * @return time in milliseconds
+     */
+    public long getElapsedTime();
+
+    /**
+     * returns time of loading or generation of mapping
+     * @return time in milliseconds
+     */
+    public long getMappingTime();
+
+    /**
+     * returns time of extraction of triples from D2RQ model, including SQL queries
+     * @return time in milliseconds
+     */
+    public long getExtractionTime();
+
+    /**
+     * returns part of extraction spent in SQL queries and fetching of rows
+     * @return time in milliseconds or -1 if it isn't measured
+     */
+    public long getSqlTime();
+
+    /**
+     * returns time of serialization of triples
+     * @return time in milliseconds
+     */
+    public long getWriteTime();
+
+    /**
+     * returns time of loading of ontology by OWL API
+     * @return time in milliseconds
+     */
+    public long getLoadTime();
+
+    /**
+     * returns time of saving of ontology by OWL API
+     * @return time in milliseconds
+     */
+    public long getSaveTime();
+
+    /**
+     * returns rows and SQL time of every table
+     * @return one line per table
+     */
+    public String[] getTableSummary();
+
+    /**
+     * returns triples and time of every extraction unit
+     * @return one line per unit
+     */
+    public String[] getUnitSummary();
+
+    /**
+     * returns memory allocated by extracting threads
+     * @return allocated bytes or -1 if allocation isn't measured
+     */
+    public long getAllocatedBytes();
+
+    /**
+     * returns memory allocated per triple
+     * @return allocated bytes per triple or -1 if allocation isn't measured
+     */
+    public long getAllocatedBytesPerTriple();
+
+    /**
+     * returns allocation rate of transformation
+     * @return allocated bytes per second or -1 if allocation isn't measured
+     */
+    public long getAllocationRate();
+
+    /**
+     * returns number of garbage collections during transformation (all collectors of JVM)
+     * @return number of collections
+     */
+    public long getGcCount();
+
+    /**
+     * returns time spent in garbage collections during transformation
+     * @return time in milliseconds
+     */
+    public long getGcTime();
+
+    /**
+     * returns number of terms taken from term dictionary
+     * @return number of hits, 0 if dictionary wasn't used
+     */
+    public long getDictionaryHits();
+
+    /**
+     * returns number of terms which had to be serialized
+     * @return number of misses, 0 if dictionary wasn't used
+     */
+    public long getDictionaryMisses();
+
+    /**
+     * returns number of duplicate triples dropped during extraction
+     * @return number of duplicates, 0 if deduplication isn't enabled
+     */
+    public long getDuplicates();
+
+    /**
+     * Check if transformation is finished
+     * @return true if transformation is finished
+     */
+    public boolean isFinished();
+}
@@ -0,0 +1,88 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Resource;
+import de.fuberlin.wiwiss.d2rq.vocab.D2RQ;
+
+/**
+ * Instance of this class represents independent part of D2RQ mapping - one ClassMap
+ * with all its property bridges. Every unit can be extracted separately with its own
+ * database connection.
+ * Last Modified 17.10.2026
+ */
+public class ExtractionUnit {
+
+    private final String name;
+    private final Node classMap;
+    private final String table;
+    private final Model mapModel;
+
+    /**
+     * Creates new extraction unit
+     * @param name unique name of unit, usable as file name
+     * @param classMap ClassMap node
+     * @param table name of main table of ClassMap, null if it is unknown
+     * @param mapModel D2RQ mapping containing only this unit
+     */
+    public ExtractionUnit(String name, Node classMap, String table, Model mapModel) {
+        this.name = name;
+        this.classMap = classMap;
+        this.table = table;
+        this.mapModel = mapModel;
+    }
+
+    /**
+     * Creates copy of this unit restricted by additional SQL condition on ClassMap.
+     * Condition is inherited by all property bridges of the ClassMap.
+     * @param condition SQL condition (d2rq:condition)
+     * @param suffix suffix appended to unit name
+     * @return restricted unit
+     */
+    public ExtractionUnit restrict(String condition, String suffix) {
+        Model restricted = ModelFactory.createDefaultModel();
+        restricted.setNsPrefixes(mapModel);
+        restricted.add(mapModel);
+        Resource resource = (Resource) restricted.getRDFNode(classMap);
+        resource.addProperty(D2RQ.condition, condition);
+        return new ExtractionUnit(name + suffix, classMap, table, restricted);
+    }
+
+    /**
+     * Returns unique name of unit
+     * @return name of unit
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns ClassMap resource in mapping of this unit
+     * @return ClassMap resource
+     */
+    public Resource getClassMap() {
+        return (Resource) mapModel.getRDFNode(classMap);
+    }
+
+    /**
+     * Returns name of main table of ClassMap
+     * @return table name or null if it is unknown
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns D2RQ mapping containing only this unit
+     * @return mapping model
+     */
+    public Model getMapModel() {
+        return mapModel;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
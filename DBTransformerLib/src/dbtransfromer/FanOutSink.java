@@ -0,0 +1,204 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Triple;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Triple sink which passes every triple to several sinks, so one extraction can be written
+ * in several formats. Every inner sink runs in its own thread, triples are handed over
+ * in batches through bounded queues, so extraction waits for the slowest sink instead
+ * of collecting triples in memory. Error of any inner sink is reported by the next
+ * call of this sink.
+ * Last Modified 17.10.2026
+ */
+public class FanOutSink implements TripleSink {
+
+    /**
+     * Default number of triples in batch handed over to inner sinks
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final int QUEUE_BATCHES = 16;
+    private static final List<Triple> END = new ArrayList<Triple>(0);
+    private static final List<Triple> ABORT = new ArrayList<Triple>(0);
+    private final List<Writer> writers = new ArrayList<Writer>();
+    private final int batchSize;
+    private List<Triple> batch;
+    private boolean started = false;
+    private boolean finished = false;
+
+    /**
+     * Creates new fan-out sink with default batch size
+     * @param sinks inner sinks
+     */
+    public FanOutSink(List<TripleSink> sinks) {
+        this(sinks, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates new fan-out sink
+     * @param sinks inner sinks
+     * @param batchSize number of triples in batch handed over to inner sinks
+     */
+    public FanOutSink(List<TripleSink> sinks, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<Triple>(batchSize);
+        for (TripleSink sink : sinks) {
+            writers.add(new Writer(sink, writers.size() + 1));
+        }
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        started = true;
+        for (Writer writer : writers) {
+            writer.prefixes = prefixes;
+            writer.start();
+        }
+    }
+
+    public void add(Triple triple) throws IOException {
+        batch.add(triple);
+        if (batch.size() == batchSize) {
+            dispatch(batch);
+            batch = new ArrayList<Triple>(batchSize);
+        }
+    }
+
+    /**
+     * Writes remaining triples, finishes all inner sinks and waits for their threads
+     */
+    public void finish() throws IOException {
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+            batch = new ArrayList<Triple>(batchSize);
+        }
+        dispatch(END);
+        finished = true;
+        for (Writer writer : writers) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Writing was interrupted");
+            }
+        }
+        checkErrors();
+    }
+
+    /**
+     * Stops threads of inner sinks after failure, inner sinks aren't finished
+     */
+    public void close() {
+        if (!started) {
+            return;
+        }
+        for (Writer writer : writers) {
+            if (writer.isAlive()) {
+                // only this thread puts into queue, so there is space for marker after clearing
+                writer.queue.clear();
+                writer.queue.offer(ABORT);
+            }
+        }
+        finished = true;
+    }
+
+    /**
+     * Hands batch over to all inner sinks
+     */
+    private void dispatch(List<Triple> triples) throws IOException {
+        checkErrors();
+        try {
+            for (Writer writer : writers) {
+                writer.queue.put(triples);
+            }
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Writing was interrupted");
+        }
+    }
+
+    /**
+     * Throws error of the first failed inner sink
+     */
+    private void checkErrors() throws IOException {
+        for (Writer writer : writers) {
+            Throwable error = writer.error;
+            if (error == null) {
+                continue;
+            }
+            if (!finished) {
+                close();
+            }
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw new IllegalStateException(error.toString());
+        }
+    }
+
+    /**
+     * Thread writing triples into one inner sink
+     */
+    private static class Writer extends Thread {
+
+        private final TripleSink sink;
+        private final BlockingQueue<List<Triple>> queue = new ArrayBlockingQueue<List<Triple>>(QUEUE_BATCHES);
+        private Map<String, String> prefixes;
+        private volatile Throwable error = null;
+
+        Writer(TripleSink sink, int number) {
+            super("FanOutSink writer " + number);
+            this.sink = sink;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                sink.start(prefixes);
+                while (true) {
+                    List<Triple> triples = queue.take();
+                    if (triples == ABORT) {
+                        return;
+                    }
+                    if (triples == END) {
+                        sink.finish();
+                        return;
+                    }
+                    for (Triple triple : triples) {
+                        sink.add(triple);
+                    }
+                }
+            } catch (Throwable e) {
+                error = e;
+                // producer must not block on full queue
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                List<Triple> triples;
+                do {
+                    triples = queue.take();
+                } while (triples != END && triples != ABORT);
+            } catch (InterruptedException e) {
+                // thread ends anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package dbtransfromer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Instance of this class tunes JDBC fetch size of every query separately. Over the first
+ * batches of result set it measures rows per second and bytes per row and doubles fetch size
+ * while throughput grows and the batch fits into memory budget. The best fetch size is
+ * recorded per table (FROM clause of query) into profile file, so next run starts from it.
+ * Tuner is attached to {@link ConnectionPool}, which wraps statements of its connections
+ * and passes their result sets through {@link MeteredResultSet}.
+ * Last Modified 17.10.2026
+ */
+public class FetchSizeTuner {
+
+    /**
+     * Minimal relative improvement of throughput for which fetch size is increased again
+     */
+    private static final double IMPROVEMENT = 1.05;
+    private final File profile;
+    private final Properties sizes = new Properties();
+    private volatile long memoryBudget = 16 * 1024 * 1024;
+    private volatile int minFetchSize = 10;
+    private volatile int maxFetchSize = 20000;
+    private volatile int tunedBatches = 8;
+
+    /**
+     * Creates new tuner and loads fetch sizes recorded by previous runs
+     * @param profile file with fetch sizes of tables, it is created when first size is recorded
+     * @throws IOException if profile can't be read
+     */
+    public FetchSizeTuner(File profile) throws IOException {
+        this.profile = profile;
+        if (profile.exists()) {
+            InputStream in = new FileInputStream(profile);
+            try {
+                sizes.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Returns fetch size recorded for table
+     * @param table table or FROM clause of query
+     * @return fetch size or 0 if table wasn't tuned yet
+     */
+    public synchronized int getFetchSize(String table) {
+        String size = sizes.getProperty(table);
+        return size == null ? 0 : Integer.parseInt(size);
+    }
+
+    /**
+     * Returns fetch size with which query of table starts, it is the size recorded for table
+     * or requested size when table wasn't tuned yet
+     * @param table table or FROM clause of query
+     * @param requested fetch size requested by statement
+     * @return initial fetch size
+     */
+    int fetchSize(String table, int requested) {
+        int start = getFetchSize(table);
+        return Math.max(minFetchSize, Math.min(maxFetchSize, start > 0 ? start : requested));
+    }
+
+    /**
+     * Starts tuning of result set
+     * @param rs result set of query
+     * @param table table or FROM clause of query
+     * @param fetchSize initial fetch size (see {@link #fetchSize(String, int)})
+     * @return tuning of result set
+     * @throws SQLException if fetch size can't be set
+     */
+    Tuning tune(ResultSet rs, String table, int fetchSize) throws SQLException {
+        rs.setFetchSize(fetchSize);
+        return new Tuning(rs, table, fetchSize);
+    }
+
+    /**
+     * Records tuned fetch size of table and writes profile if value changed
+     */
+    private synchronized void record(String table, int fetchSize) {
+        if (String.valueOf(fetchSize).equals(sizes.getProperty(table))) {
+            return;
+        }
+        sizes.setProperty(table, String.valueOf(fetchSize));
+        try {
+            File tmp = new File(profile.getPath() + ".tmp");
+            OutputStream out = new FileOutputStream(tmp);
+            try {
+                sizes.store(out, "DBTransformer fetch sizes");
+            } finally {
+                out.close();
+            }
+            if (profile.exists() && !profile.delete() || !tmp.renameTo(profile)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            // profile is only optimization, value is kept in memory
+        }
+    }
+
+    /**
+     * Returns FROM clause of query, it identifies tables of result set
+     * @param sql SQL query
+     * @return FROM clause or null if query has none
+     */
+    static String fromClause(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String upper = sql.toUpperCase(Locale.ENGLISH);
+        int from = upper.indexOf(" FROM ");
+        if (from < 0) {
+            return null;
+        }
+        int end = upper.length();
+        String[] terminators = {" WHERE ", " GROUP BY ", " ORDER BY ", " HAVING ", " UNION "};
+        for (int i = 0; i < terminators.length; i++) {
+            int index = upper.indexOf(terminators[i], from + 6);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        return sql.substring(from + 6, end).trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Tuning of one result set, it measures batches and adjusts fetch size
+     */
+    class Tuning {
+
+        private final ResultSet rs;
+        private final String table;
+        private int fetchSize;
+        private int bestFetchSize;
+        private double bestRate = 0;
+        private int batches = 0;
+        private boolean tuning = true;
+        private long rows = 0;
+        private long batchRows = 0;
+        private long batchStart;
+        private long bytes = 0;
+
+        Tuning(ResultSet rs, String table, int fetchSize) {
+            this.rs = rs;
+            this.table = table;
+            this.fetchSize = fetchSize;
+            this.bestFetchSize = fetchSize;
+            this.batchStart = System.nanoTime();
+        }
+
+        /**
+         * Counts call of next() of result set
+         * @param row true if result set moved to next row
+         * @return true if fetch size is still tuned
+         * @throws SQLException if fetch size can't be set
+         */
+        boolean next(boolean row) throws SQLException {
+            if (!tuning) {
+                return false;
+            }
+            if (!row) {
+                finish();
+            } else {
+                rows++;
+                if (++batchRows == fetchSize) {
+                    endBatch();
+                }
+            }
+            return tuning;
+        }
+
+        /**
+         * Counts value read from result set into size of rows
+         * @param value value returned by getter of result set
+         */
+        void value(Object value) {
+            bytes += sizeOf(value);
+        }
+
+        /**
+         * Evaluates finished batch and chooses fetch size of next batch
+         */
+        private void endBatch() throws SQLException {
+            long elapsed = Math.max(1, System.nanoTime() - batchStart);
+            double rate = batchRows * 1e9 / elapsed;
+            long bytesPerRow = Math.max(1, bytes / rows);
+            int cap = (int) Math.max(minFetchSize, Math.min(maxFetchSize, memoryBudget / bytesPerRow));
+            int next;
+            if (rate > bestRate * IMPROVEMENT) {
+                bestRate = rate;
+                bestFetchSize = fetchSize;
+                next = (int) Math.min(cap, fetchSize * 2L);
+            } else {
+                // throughput doesn't grow any more, the best size is used for the rest
+                next = Math.min(cap, bestFetchSize);
+                tuning = false;
+            }
+            if (++batches >= tunedBatches || next == fetchSize) {
+                tuning = false;
+            }
+            if (next != fetchSize) {
+                rs.setFetchSize(next);
+                fetchSize = next;
+            }
+            batchRows = 0;
+            batchStart = System.nanoTime();
+            if (!tuning) {
+                bestFetchSize = fetchSize;
+                record(table, fetchSize);
+            }
+        }
+
+        /**
+         * Records fetch size of result set which was closed or read before tuning finished
+         */
+        void finish() {
+            if (tuning && batches > 0) {
+                record(table, bestFetchSize);
+            }
+            tuning = false;
+        }
+    }
+
+    /**
+     * Estimates size of value read from result set in bytes
+     */
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 1;
+        } else if (value instanceof String) {
+            return 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return 8;
+    }
+
+    /**
+     * returns memory budget of one batch of result set
+     * @return memory budget in bytes
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * set memory budget of one batch of result set, fetch size is limited by budget / bytes per row
+     * @param memoryBudget memory budget in bytes
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * returns minimal fetch size
+     * @return minimal fetch size
+     */
+    public int getMinFetchSize() {
+        return minFetchSize;
+    }
+
+    /**
+     * set minimal fetch size
+     * @param minFetchSize minimal fetch size
+     */
+    public void setMinFetchSize(int minFetchSize) {
+        this.minFetchSize = minFetchSize;
+    }
+
+    /**
+     * returns maximal fetch size
+     * @return maximal fetch size
+     */
+    public int getMaxFetchSize() {
+        return maxFetchSize;
+    }
+
+    /**
+     * set maximal fetch size
+     * @param maxFetchSize maximal fetch size
+     */
+    public void setMaxFetchSize(int maxFetchSize) {
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    /**
+     * returns number of batches measured before fetch size is fixed
+     * @return number of batches
+     */
+    public int getTunedBatches() {
+        return tunedBatches;
+    }
+
+    /**
+     * set number of batches measured before fetch size is fixed
+     * @param tunedBatches number of batches
+     */
+    public void setTunedBatches(int tunedBatches) {
+        this.tunedBatches = tunedBatches;
+    }
+}
@@ -0,0 +1,223 @@
+package dbtransfromer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Set of 128 bit fingerprints of triples kept outside of heap in direct buffers, so number
+ * of remembered triples doesn't grow heap of transformation. Exact set consists of open
+ * addressing hash tables which double when they are half full, approximate set is Bloom
+ * filter of fixed size with bounded rate of false positives. Sets are thread safe, one set
+ * can be shared by parallel extraction units. Direct buffers count into limit
+ * -XX:MaxDirectMemorySize (maximum heap size by default) and buffers of grown table are
+ * freed only by garbage collection.
+ * Last Modified 17.10.2026
+ */
+abstract class FingerprintSet {
+
+    /**
+     * Size of one direct buffer (1 GB)
+     */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    /**
+     * Adds fingerprint into set
+     * @param h1 first half of fingerprint
+     * @param h2 second half of fingerprint
+     * @return true if fingerprint wasn't in set
+     */
+    abstract boolean add(long h1, long h2);
+
+    /**
+     * returns number of bytes of direct buffers used by set
+     * @return allocated bytes
+     */
+    abstract long getMemory();
+
+    /**
+     * Creates exact set
+     * @param expected expected number of fingerprints, set grows when it is exceeded
+     * @return empty set
+     */
+    static FingerprintSet exact(long expected) {
+        return new ExactSet(expected);
+    }
+
+    /**
+     * Creates approximate set, adding of new fingerprint returns false with given probability
+     * while number of fingerprints is below expected number
+     * @param expected expected number of fingerprints
+     * @param falsePositiveRate probability that new fingerprint is reported as present
+     * @return empty set
+     */
+    static FingerprintSet approximate(long expected, double falsePositiveRate) {
+        return new BloomFilter(expected, falsePositiveRate);
+    }
+
+    /**
+     * Allocates direct buffers of given total size split into segments
+     */
+    private static ByteBuffer[] allocate(long bytes) {
+        int count = (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_BITS);
+        ByteBuffer[] segments = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) Math.min(1L << SEGMENT_BITS, bytes - ((long) i << SEGMENT_BITS)));
+        }
+        return segments;
+    }
+
+    private static long getLong(ByteBuffer[] segments, long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    private static void putLong(ByteBuffer[] segments, long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_BITS)].putLong((int) (offset & SEGMENT_MASK), value);
+    }
+
+    /**
+     * Exact set split into independently locked hash tables selected by high bits
+     * of fingerprint, so parallel workers rarely wait for each other and every table
+     * grows alone
+     */
+    private static class ExactSet extends FingerprintSet {
+
+        private static final int TABLE_BITS = 6;
+        private final Table[] tables = new Table[1 << TABLE_BITS];
+
+        ExactSet(long expected) {
+            for (int i = 0; i < tables.length; i++) {
+                tables[i] = new Table(expected >>> TABLE_BITS);
+            }
+        }
+
+        boolean add(long h1, long h2) {
+            if (h1 == 0 && h2 == 0) {
+                // zero marks empty slot
+                h2 = 1;
+            }
+            return tables[(int) (h1 >>> (64 - TABLE_BITS))].add(h1, h2);
+        }
+
+        long getMemory() {
+            long memory = 0;
+            for (Table table : tables) {
+                memory += table.getMemory();
+            }
+            return memory;
+        }
+    }
+
+    /**
+     * Open addressing hash table of fingerprints, every slot has 16 bytes, empty slot is zero
+     */
+    private static class Table {
+
+        private ByteBuffer[] segments;
+        private long capacity;
+        private long size = 0;
+
+        Table(long expected) {
+            capacity = 1024;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            segments = allocate(capacity * 16);
+        }
+
+        synchronized boolean add(long h1, long h2) {
+            if (!insert(segments, capacity, h1, h2)) {
+                return false;
+            }
+            if (++size * 2 > capacity) {
+                grow();
+            }
+            return true;
+        }
+
+        /**
+         * Inserts fingerprint by linear probing, returns false if it is present
+         */
+        private static boolean insert(ByteBuffer[] segments, long capacity, long h1, long h2) {
+            long mask = capacity - 1;
+            long slot = h1 & mask;
+            while (true) {
+                long offset = slot * 16;
+                long s1 = getLong(segments, offset);
+                long s2 = getLong(segments, offset + 8);
+                if (s1 == 0 && s2 == 0) {
+                    putLong(segments, offset, h1);
+                    putLong(segments, offset + 8, h2);
+                    return true;
+                }
+                if (s1 == h1 && s2 == h2) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Doubles table, old buffers are released by garbage collector
+         */
+        private void grow() {
+            long newCapacity = capacity * 2;
+            ByteBuffer[] newSegments = allocate(newCapacity * 16);
+            for (long slot = 0; slot < capacity; slot++) {
+                long s1 = getLong(segments, slot * 16);
+                long s2 = getLong(segments, slot * 16 + 8);
+                if (s1 != 0 || s2 != 0) {
+                    insert(newSegments, newCapacity, s1, s2);
+                }
+            }
+            segments = newSegments;
+            capacity = newCapacity;
+        }
+
+        synchronized long getMemory() {
+            return capacity * 16;
+        }
+    }
+
+    /**
+     * Bloom filter, bit positions are derived from both halves of fingerprint by double hashing
+     */
+    private static class BloomFilter extends FingerprintSet {
+
+        private final ByteBuffer[] segments;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(long expected, double falsePositiveRate) {
+            if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+                throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+            }
+            long n = Math.max(1, expected);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            // whole longs
+            bits = Math.max(64, (m + 63) & ~63L);
+            hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            segments = allocate(bits / 8);
+        }
+
+        synchronized boolean add(long h1, long h2) {
+            boolean added = false;
+            long hash = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = (hash & Long.MAX_VALUE) % bits;
+                long offset = (bit >>> 6) * 8;
+                long word = getLong(segments, offset);
+                long mask = 1L << (bit & 63);
+                if ((word & mask) == 0) {
+                    putLong(segments, offset, word | mask);
+                    added = true;
+                }
+                hash += h2;
+            }
+            return added;
+        }
+
+        long getMemory() {
+            return bits / 8;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dbtransfromer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class splits extraction units of large tables into several units by ranges
+ * of numeric primary key, so one table can be extracted by more workers at once.
+ * Table size is estimated from JDBC index statistics, key range is read by MIN / MAX query.
+ * Ranges are computed with BigInteger, so keys spanning more than Long.MAX_VALUE (e.g. signed
+ * hashes) or wider than long are split evenly too.
+ * Last Modified 17.10.2026
+ */
+public class KeyRangePartitioner {
+
+    private final Connection connection;
+    private final long threshold;
+    private final int partitions;
+
+    /**
+     * Creates new partitioner
+     * @param connection database connection used for reading metadata and key ranges
+     * @param threshold minimal number of rows of partitioned table
+     * @param partitions number of ranges for every partitioned table
+     */
+    public KeyRangePartitioner(Connection connection, long threshold, int partitions) {
+        this.connection = connection;
+        this.threshold = threshold;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Replaces units of large tables by units restricted to key ranges
+     * @param units extraction units
+     * @return units after partitioning, in original order
+     * @throws SQLException if error during reading metadata happened
+     */
+    public List<ExtractionUnit> partition(List<ExtractionUnit> units) throws SQLException {
+        List<ExtractionUnit> result = new ArrayList<ExtractionUnit>();
+        for (ExtractionUnit unit : units) {
+            String key = unit.getTable() == null || partitions < 2 ? null : SchemaMetadata.numericKey(connection, unit.getTable());
+            if (key == null) {
+                result.add(unit);
+                continue;
+            }
+            String column = unit.getTable() + "." + key;
+            long rows = SchemaMetadata.estimateRows(connection, unit.getTable());
+            BigInteger[] range = rows >= 0 && rows < threshold ? null : keyRange(unit.getTable(), column);
+            if (range == null || rows < 0
+                    && range[1].subtract(range[0]).add(BigInteger.ONE).compareTo(BigInteger.valueOf(threshold)) < 0) {
+                // small table, without statistics size is estimated by range of key
+                result.add(unit);
+                continue;
+            }
+            BigInteger step = range[1].subtract(range[0]).divide(BigInteger.valueOf(partitions)).add(BigInteger.ONE);
+            for (int i = 0; i < partitions; i++) {
+                BigInteger from = range[0].add(step.multiply(BigInteger.valueOf(i)));
+                BigInteger to = from.add(step);
+                if (i > 0 && from.compareTo(range[1]) > 0) {
+                    break;
+                }
+                String condition;
+                if (i == 0 && to.compareTo(range[1]) > 0) {
+                    // whole range fits into one partition
+                    result.add(unit);
+                    break;
+                } else if (i == 0) {
+                    condition = column + " < " + to;
+                } else if (i == partitions - 1 || to.compareTo(range[1]) > 0) {
+                    condition = column + " >= " + from;
+                } else {
+                    condition = column + " >= " + from + " AND " + column + " < " + to;
+                }
+                result.add(unit.restrict(condition, "_part" + (i + 1)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads minimal and maximal value of key, fractional values are rounded down
+     * @return array {min, max} or null if table is empty
+     */
+    private BigInteger[] keyRange(String table, String column) throws SQLException {
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery("SELECT MIN(" + column + "), MAX(" + column + ") FROM " + table);
+            try {
+                if (!rs.next() || rs.getObject(1) == null) {
+                    return null;
+                }
+                return new BigInteger[]{floor(rs.getBigDecimal(1)), floor(rs.getBigDecimal(2))};
+            } finally {
+                rs.close();
+            }
+        } finally {
+            stmt.close();
+        }
+    }
+
+    private static BigInteger floor(BigDecimal value) {
+        return value.setScale(0, BigDecimal.ROUND_FLOOR).toBigInteger();
+    }
+}
@@ -0,0 +1,95 @@
+package dbtransfromer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream reading file through memory mapped regions, so large files are read
+ * from page cache without copying them into heap. Regions are mapped one after
+ * another, every region has at most 1 GB.
+ * Last Modified 17.10.2026
+ */
+class MappedInputStream extends InputStream {
+
+    /**
+     * Maximal size of one mapped region
+     */
+    private static final long MAX_REGION = 1L << 30;
+    private final FileChannel channel;
+    private final long size;
+    private long position = 0;
+    private MappedByteBuffer region;
+
+    /**
+     * Opens file for reading
+     * @param file file
+     * @throws IOException if file can't be opened
+     */
+    MappedInputStream(File file) throws IOException {
+        this.channel = new FileInputStream(file).getChannel();
+        this.size = channel.size();
+    }
+
+    /**
+     * Maps next region if current one is read, returns false at end of file
+     */
+    private boolean nextRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        long length = Math.min(MAX_REGION, size - position);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        position += length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextRegion()) {
+            return -1;
+        }
+        return region.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextRegion()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && nextRegion()) {
+            int count = (int) Math.min(n - skipped, region.remaining());
+            region.position(region.position() + count);
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return region == null ? 0 : region.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+}
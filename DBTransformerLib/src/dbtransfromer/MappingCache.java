@@ -0,0 +1,319 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Instance of this class stores generated D2RQ mappings on disk. Mapping is identified
+ * by hash of generator settings and fingerprint of database schema (tables, columns,
+ * their types and keys), so it is reused until schema changes. Computing fingerprint
+ * reads only plain JDBC metadata of mapped tables, which is much cheaper than generating
+ * and parsing mapping. Where database offers cheap summary of its schema (time of last
+ * DDL, column counts), metadata are read only when this summary changes.
+ * Last Modified 17.10.2026
+ */
+public class MappingCache {
+
+    private static final String EXTENSION = ".rdf";
+    private static final String PROBE_EXTENSION = ".probe";
+    private final File directory;
+
+    /**
+     * Creates new cache
+     * @param directory directory for cached mappings, it is created if it doesn't exist
+     */
+    public MappingCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes cache key from generator settings and database schema, dialect is chosen
+     * by JDBC URL of connection
+     * @param connection database connection
+     * @param settings generator settings (JDBC URL, namespaces, base URI...)
+     * @return cache key
+     * @throws SQLException if error during reading metadata happened
+     */
+    public String key(Connection connection, String... settings) throws SQLException {
+        return key(connection, SQLDialect.forDriver(null, connection.getMetaData().getURL()), settings);
+    }
+
+    /**
+     * Computes cache key from generator settings and database schema. If dialect has
+     * schema probe (see {@link SQLDialect#schemaProbe()}) and its result is the same as
+     * when key was computed last time, the key is reused without reading metadata.
+     * @param connection database connection
+     * @param dialect dialect of database
+     * @param settings generator settings (JDBC URL, namespaces, base URI...)
+     * @return cache key
+     * @throws SQLException if error during reading metadata happened
+     */
+    public String key(Connection connection, SQLDialect dialect, String... settings) throws SQLException {
+        MessageDigest settingsDigest = digest();
+        for (String setting : settings) {
+            update(settingsDigest, setting);
+        }
+        String settingsHash = hex(settingsDigest.digest());
+        String probe = probe(connection, dialect);
+        File probeFile = new File(directory, settingsHash + PROBE_EXTENSION);
+        Properties probed = new Properties();
+        if (probe != null && probeFile.isFile()) {
+            try {
+                InputStream in = new FileInputStream(probeFile);
+                try {
+                    probed.load(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                // schema is read again
+            }
+            if (probe.equals(probed.getProperty("probe")) && probed.getProperty("key") != null) {
+                return probed.getProperty("key");
+            }
+        }
+        String key = settingsHash + "-" + fingerprint(connection.getMetaData());
+        if (probe != null) {
+            probed.setProperty("probe", probe);
+            probed.setProperty("key", key);
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Can't create directory " + directory);
+                }
+                OutputStream out = new FileOutputStream(probeFile);
+                try {
+                    probed.store(out, "DBTransformer schema probe");
+                } finally {
+                    out.close();
+                }
+            } catch (IOException e) {
+                // schema is read again next time
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Runs schema probe of dialect
+     * @return result of probe or null if dialect has no probe or it failed
+     */
+    private static String probe(Connection connection, SQLDialect dialect) {
+        String query = dialect.schemaProbe();
+        if (query == null) {
+            return null;
+        }
+        try {
+            Statement stmt = connection.createStatement();
+            try {
+                ResultSet rs = stmt.executeQuery(query);
+                try {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    StringBuilder sb = new StringBuilder(dialect.getName());
+                    for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                        sb.append(' ').append(rs.getString(i));
+                    }
+                    return sb.toString();
+                } finally {
+                    rs.close();
+                }
+            } finally {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            // e.g. missing privileges on system views, fingerprint is computed always
+            return null;
+        }
+    }
+
+    /**
+     * Computes fingerprint of tables mapped by generator (tables and views of user schema
+     * on Oracle, tables and views of all schemas except system ones elsewhere), their
+     * columns, types and keys
+     */
+    private static String fingerprint(DatabaseMetaData metaData) throws SQLException {
+        MessageDigest schemaDigest = digest();
+        String product = metaData.getDatabaseProductName();
+        update(schemaDigest, product);
+        update(schemaDigest, metaData.getDatabaseProductVersion());
+        product = product == null ? "" : product.toLowerCase();
+        boolean oracle = product.indexOf("oracle") >= 0;
+        // schema -> mapped tables
+        Map<String, Set<String>> tables = new TreeMap<String, Set<String>>();
+        ResultSet rs = metaData.getTables(null, oracle ? metaData.getUserName() : null, null, new String[]{"TABLE", "VIEW"});
+        try {
+            while (rs.next()) {
+                String schema = rs.getString("TABLE_SCHEM");
+                String table = rs.getString("TABLE_NAME");
+                if (!isSystemTable(product, schema, table)) {
+                    String key = String.valueOf(schema);
+                    if (!tables.containsKey(key)) {
+                        tables.put(key, new TreeSet<String>());
+                    }
+                    tables.get(key).add(table);
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        for (Map.Entry<String, Set<String>> entry : tables.entrySet()) {
+            String schema = entry.getKey().equals("null") ? null : entry.getKey();
+            rs = metaData.getColumns(null, schema, "%", "%");
+            try {
+                while (rs.next()) {
+                    String table = rs.getString("TABLE_NAME");
+                    if (!entry.getValue().contains(table)) {
+                        continue;
+                    }
+                    update(schemaDigest, schema);
+                    update(schemaDigest, table);
+                    update(schemaDigest, rs.getString("COLUMN_NAME"));
+                    update(schemaDigest, rs.getString("DATA_TYPE"));
+                    update(schemaDigest, rs.getString("TYPE_NAME"));
+                    update(schemaDigest, rs.getString("COLUMN_SIZE"));
+                    update(schemaDigest, rs.getString("NULLABLE"));
+                }
+            } finally {
+                rs.close();
+            }
+            for (String table : entry.getValue()) {
+                rs = metaData.getPrimaryKeys(null, schema, table);
+                try {
+                    while (rs.next()) {
+                        update(schemaDigest, rs.getString("COLUMN_NAME"));
+                        update(schemaDigest, rs.getString("KEY_SEQ"));
+                    }
+                } finally {
+                    rs.close();
+                }
+                rs = metaData.getImportedKeys(null, schema, table);
+                try {
+                    while (rs.next()) {
+                        update(schemaDigest, rs.getString("PKTABLE_SCHEM"));
+                        update(schemaDigest, rs.getString("PKTABLE_NAME"));
+                        update(schemaDigest, rs.getString("PKCOLUMN_NAME"));
+                        update(schemaDigest, rs.getString("FKCOLUMN_NAME"));
+                    }
+                } finally {
+                    rs.close();
+                }
+            }
+        }
+        return hex(schemaDigest.digest());
+    }
+
+    /**
+     * Check if table is left out by mapping generator (system schemas, Oracle recycle bin)
+     */
+    private static boolean isSystemTable(String product, String schema, String table) {
+        if (product.indexOf("postgresql") >= 0) {
+            return "information_schema".equals(schema) || "pg_catalog".equals(schema);
+        } else if (product.indexOf("oracle") >= 0) {
+            return table.startsWith("BIN$");
+        } else if (product.indexOf("microsoft sql server") >= 0) {
+            return "sys".equals(schema) || "INFORMATION_SCHEMA".equals(schema);
+        }
+        return false;
+    }
+
+    /**
+     * Loads cached mapping
+     * @param key cache key
+     * @return mapping model or null if mapping isn't cached
+     * @throws IOException if cached file can't be read
+     */
+    public Model load(String key) throws IOException {
+        File file = new File(directory, key + EXTENSION);
+        if (!file.isFile()) {
+            return null;
+        }
+        Model model = ModelFactory.createDefaultModel();
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            model.read(in, null, "RDF/XML");
+        } finally {
+            in.close();
+        }
+        return model;
+    }
+
+    /**
+     * Stores mapping into cache. Mappings generated with the same settings
+     * for previous versions of schema are removed.
+     * @param key cache key
+     * @param mapModel mapping model
+     * @throws IOException if mapping can't be written
+     */
+    public void store(String key, Model mapModel) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        File tmp = File.createTempFile(key, ".tmp", directory);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+        try {
+            mapModel.write(out, "RDF/XML");
+        } finally {
+            out.close();
+        }
+        String settings = key.substring(0, key.indexOf('-') + 1);
+        File[] files = directory.listFiles();
+        for (int i = 0; files != null && i < files.length; i++) {
+            if (files[i].getName().startsWith(settings) && files[i].getName().endsWith(EXTENSION)) {
+                files[i].delete();
+            }
+        }
+        if (!tmp.renameTo(new File(directory, key + EXTENSION))) {
+            tmp.delete();
+            throw new IOException("Can't store mapping " + key);
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is always supported
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        try {
+            digest.update(String.valueOf(value).getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e.getMessage());
+        }
+        digest.update((byte) 0);
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (int i = 0; i < bytes.length; i++) {
+            sb.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import com.hp.hpl.jena.vocabulary.RDF;
+import de.fuberlin.wiwiss.d2rq.vocab.D2RQ;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class splits D2RQ mapping into independent extraction units, one unit per ClassMap.
+ * Every unit contains shared definitions (databases, translation tables, configuration),
+ * the ClassMap with its property bridges and stripped copies of ClassMaps referenced
+ * by d2rq:refersToClassMap, which only define URIs and don't produce any triples.
+ * Last Modified 17.10.2026
+ */
+public class MappingSplitter {
+
+    /**
+     * Properties of ClassMap which produce triples, they aren't copied for referenced ClassMaps
+     */
+    private static final Property[] PRODUCING_PROPERTIES = {
+        D2RQ.class__, D2RQ.additionalProperty, D2RQ.class_DefinitionLabel,
+        D2RQ.class_DefinitionComment, D2RQ.additionalClassDefinitionProperty
+    };
+
+    private MappingSplitter() {
+    }
+
+    /**
+     * Splits mapping into extraction units
+     * @param mapModel D2RQ mapping
+     * @return list of units in order of ClassMap URIs
+     */
+    public static List<ExtractionUnit> split(Model mapModel) {
+        Set<Resource> classMaps = new HashSet<Resource>();
+        StmtIterator it = mapModel.listStatements(null, RDF.type, D2RQ.ClassMap);
+        while (it.hasNext()) {
+            classMaps.add(it.nextStatement().getSubject());
+        }
+        it = mapModel.listStatements(null, D2RQ.belongsToClassMap, (RDFNode) null);
+        Map<Resource, List<Resource>> bridges = new HashMap<Resource, List<Resource>>();
+        Set<Resource> allBridges = new HashSet<Resource>();
+        while (it.hasNext()) {
+            Statement s = it.nextStatement();
+            Resource classMap = (Resource) s.getObject();
+            classMaps.add(classMap);
+            List<Resource> list = bridges.get(classMap);
+            if (list == null) {
+                list = new ArrayList<Resource>();
+                bridges.put(classMap, list);
+            }
+            list.add(s.getSubject());
+            allBridges.add(s.getSubject());
+        }
+
+        Model shared = ModelFactory.createDefaultModel();
+        it = mapModel.listStatements();
+        while (it.hasNext()) {
+            Statement s = it.nextStatement();
+            if (classMaps.contains(s.getSubject()) || allBridges.contains(s.getSubject())
+                    || s.getPredicate().equals(D2RQ.classMap) || s.getPredicate().equals(D2RQ.propertyBridge)) {
+                continue;
+            }
+            shared.add(s);
+        }
+
+        List<Resource> sorted = new ArrayList<Resource>(classMaps);
+        Collections.sort(sorted, new Comparator<Resource>() {
+
+            public int compare(Resource r1, Resource r2) {
+                return r1.toString().compareTo(r2.toString());
+            }
+        });
+        List<ExtractionUnit> units = new ArrayList<ExtractionUnit>();
+        Set<String> names = new HashSet<String>();
+        for (Resource classMap : sorted) {
+            Model unit = ModelFactory.createDefaultModel();
+            unit.setNsPrefixes(mapModel);
+            unit.add(shared);
+            unit.add(mapModel.listStatements(classMap, null, (RDFNode) null));
+            unit.add(mapModel.listStatements(null, D2RQ.classMap, classMap));
+            Set<Resource> referenced = new HashSet<Resource>();
+            List<Resource> own = bridges.get(classMap);
+            if (own != null) {
+                for (Resource bridge : own) {
+                    unit.add(mapModel.listStatements(bridge, null, (RDFNode) null));
+                    unit.add(mapModel.listStatements(null, D2RQ.propertyBridge, bridge));
+                    StmtIterator refs = mapModel.listStatements(bridge, D2RQ.refersToClassMap, (RDFNode) null);
+                    while (refs.hasNext()) {
+                        referenced.add((Resource) refs.nextStatement().getObject());
+                    }
+                }
+            }
+            referenced.remove(classMap);
+            for (Resource ref : referenced) {
+                addDefinition(mapModel, unit, ref);
+            }
+            String name = uniqueName(names, classMap);
+            units.add(new ExtractionUnit(name, classMap.asNode(), tableOf(mapModel, classMap), unit));
+        }
+        return units;
+    }
+
+    /**
+     * Copies definition of referenced ClassMap without properties producing triples
+     */
+    private static void addDefinition(Model mapModel, Model unit, Resource classMap) {
+        StmtIterator it = mapModel.listStatements(classMap, null, (RDFNode) null);
+        while (it.hasNext()) {
+            Statement s = it.nextStatement();
+            boolean producing = false;
+            for (int i = 0; i < PRODUCING_PROPERTIES.length; i++) {
+                if (PRODUCING_PROPERTIES[i].equals(s.getPredicate())) {
+                    producing = true;
+                }
+            }
+            if (!producing) {
+                unit.add(s);
+            }
+        }
+    }
+
+    /**
+     * Finds main table of ClassMap from its URI pattern, URI column or blank node columns
+     * @param mapModel D2RQ mapping
+     * @param classMap ClassMap resource
+     * @return table name (possibly with schema) or null if it can't be determined
+     */
+    static String tableOf(Model mapModel, Resource classMap) {
+        String column = null;
+        if (classMap.hasProperty(D2RQ.uriPattern)) {
+            String pattern = classMap.getProperty(D2RQ.uriPattern).getString();
+            int start = pattern.indexOf("@@");
+            int end = start < 0 ? -1 : pattern.indexOf("@@", start + 2);
+            if (end > start) {
+                column = pattern.substring(start + 2, end);
+                if (column.indexOf('|') >= 0) {
+                    column = column.substring(0, column.indexOf('|'));
+                }
+            }
+        } else if (classMap.hasProperty(D2RQ.uriColumn)) {
+            column = classMap.getProperty(D2RQ.uriColumn).getString();
+        } else if (classMap.hasProperty(D2RQ.bNodeIdColumns)) {
+            column = classMap.getProperty(D2RQ.bNodeIdColumns).getString().split(",")[0].trim();
+        }
+        if (column == null || column.lastIndexOf('.') <= 0) {
+            return null;
+        }
+        return column.substring(0, column.lastIndexOf('.'));
+    }
+
+    /**
+     * Finds main tables of ClassMaps with URI patterns by constant beginning of patterns
+     * @param mapModel D2RQ mapping
+     * @return map constant part of URI pattern (before first column) -> table
+     */
+    static Map<String, String> tablesByUriPrefix(Model mapModel) {
+        Map<String, String> tables = new HashMap<String, String>();
+        StmtIterator it = mapModel.listStatements(null, RDF.type, D2RQ.ClassMap);
+        while (it.hasNext()) {
+            Resource classMap = it.nextStatement().getSubject();
+            String table = tableOf(mapModel, classMap);
+            if (table != null && classMap.hasProperty(D2RQ.uriPattern)) {
+                String pattern = classMap.getProperty(D2RQ.uriPattern).getString();
+                int column = pattern.indexOf("@@");
+                tables.put(column < 0 ? pattern : pattern.substring(0, column), table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Creates name of unit from local name of ClassMap usable as file name
+     */
+    private static String uniqueName(Set<String> names, Resource classMap) {
+        String base = classMap.isAnon() ? "unit" : classMap.getLocalName();
+        if (base == null || base.length() == 0) {
+            base = "unit";
+        }
+        base = base.replaceAll("[^A-Za-z0-9_.-]", "_");
+        String name = base;
+        for (int i = 2; names.contains(name); i++) {
+            name = base + "_" + i;
+        }
+        names.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,843 @@
+package dbtransfromer;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * Result set of pooled connection, it counts rows and time of fetching into
+ * {@link ExtractionStatistics} and adjusts fetch size by {@link FetchSizeTuner}. Result
+ * set is plain delegating class, because rows are read on hot path of extraction and
+ * reflective proxy would make every call of next() and getters much slower.
+ * Last Modified 17.10.2026
+ */
+@SuppressWarnings("deprecation")
+class MeteredResultSet implements ResultSet {
+
+    private final ResultSet rs;
+    private final ExtractionStatistics.RowCounter counter;
+    private FetchSizeTuner.Tuning tuning;
+
+    /**
+     * Creates new result set
+     * @param rs result set of driver
+     * @param counter counter of rows, null if rows aren't counted
+     * @param tuning tuning of fetch size, null if fetch size isn't tuned
+     */
+    MeteredResultSet(ResultSet rs, ExtractionStatistics.RowCounter counter, FetchSizeTuner.Tuning tuning) {
+        this.rs = rs;
+        this.counter = counter;
+        this.tuning = tuning;
+    }
+
+    public boolean next() throws SQLException {
+        long start = counter == null ? 0 : System.nanoTime();
+        boolean row = rs.next();
+        if (counter != null) {
+            counter.next(row, System.nanoTime() - start);
+        }
+        if (tuning != null && !tuning.next(row)) {
+            // fetch size is fixed, values aren't measured any more
+            tuning = null;
+        }
+        return row;
+    }
+
+    public void close() throws SQLException {
+        try {
+            rs.close();
+        } finally {
+            if (counter != null) {
+                counter.finish();
+            }
+            if (tuning != null) {
+                tuning.finish();
+                tuning = null;
+            }
+        }
+    }
+
+    /**
+     * Passes value read from result set into tuning, it estimates size of rows
+     */
+    private <T> T read(T value) {
+        if (tuning != null) {
+            tuning.value(value);
+        }
+        return value;
+    }
+
+    public boolean absolute(int rows) throws SQLException {
+        return rs.absolute(rows);
+    }
+
+    public void afterLast() throws SQLException {
+        rs.afterLast();
+    }
+
+    public void beforeFirst() throws SQLException {
+        rs.beforeFirst();
+    }
+
+    public void cancelRowUpdates() throws SQLException {
+        rs.cancelRowUpdates();
+    }
+
+    public void clearWarnings() throws SQLException {
+        rs.clearWarnings();
+    }
+
+    public void deleteRow() throws SQLException {
+        rs.deleteRow();
+    }
+
+    public int findColumn(String columnLabel) throws SQLException {
+        return rs.findColumn(columnLabel);
+    }
+
+    public boolean first() throws SQLException {
+        return rs.first();
+    }
+
+    public Array getArray(String columnLabel) throws SQLException {
+        return read(rs.getArray(columnLabel));
+    }
+
+    public Array getArray(int columnIndex) throws SQLException {
+        return read(rs.getArray(columnIndex));
+    }
+
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        return read(rs.getAsciiStream(columnLabel));
+    }
+
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        return read(rs.getAsciiStream(columnIndex));
+    }
+
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return rs.getBigDecimal(columnLabel, scale);
+    }
+
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return read(rs.getBigDecimal(columnLabel));
+    }
+
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        return rs.getBigDecimal(columnIndex, scale);
+    }
+
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        return read(rs.getBigDecimal(columnIndex));
+    }
+
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        return read(rs.getBinaryStream(columnLabel));
+    }
+
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        return read(rs.getBinaryStream(columnIndex));
+    }
+
+    public Blob getBlob(String columnLabel) throws SQLException {
+        return read(rs.getBlob(columnLabel));
+    }
+
+    public Blob getBlob(int columnIndex) throws SQLException {
+        return read(rs.getBlob(columnIndex));
+    }
+
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return rs.getBoolean(columnLabel);
+    }
+
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        return rs.getBoolean(columnIndex);
+    }
+
+    public byte getByte(String columnLabel) throws SQLException {
+        return rs.getByte(columnLabel);
+    }
+
+    public byte getByte(int columnIndex) throws SQLException {
+        return rs.getByte(columnIndex);
+    }
+
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return read(rs.getBytes(columnLabel));
+    }
+
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        return read(rs.getBytes(columnIndex));
+    }
+
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        return read(rs.getCharacterStream(columnLabel));
+    }
+
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        return read(rs.getCharacterStream(columnIndex));
+    }
+
+    public Clob getClob(String columnLabel) throws SQLException {
+        return read(rs.getClob(columnLabel));
+    }
+
+    public Clob getClob(int columnIndex) throws SQLException {
+        return read(rs.getClob(columnIndex));
+    }
+
+    public int getConcurrency() throws SQLException {
+        return rs.getConcurrency();
+    }
+
+    public String getCursorName() throws SQLException {
+        return rs.getCursorName();
+    }
+
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return rs.getDate(columnLabel, cal);
+    }
+
+    public Date getDate(String columnLabel) throws SQLException {
+        return read(rs.getDate(columnLabel));
+    }
+
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getDate(columnIndex, cal);
+    }
+
+    public Date getDate(int columnIndex) throws SQLException {
+        return read(rs.getDate(columnIndex));
+    }
+
+    public double getDouble(String columnLabel) throws SQLException {
+        return rs.getDouble(columnLabel);
+    }
+
+    public double getDouble(int columnIndex) throws SQLException {
+        return rs.getDouble(columnIndex);
+    }
+
+    public int getFetchDirection() throws SQLException {
+        return rs.getFetchDirection();
+    }
+
+    public int getFetchSize() throws SQLException {
+        return rs.getFetchSize();
+    }
+
+    public float getFloat(String columnLabel) throws SQLException {
+        return rs.getFloat(columnLabel);
+    }
+
+    public float getFloat(int columnIndex) throws SQLException {
+        return rs.getFloat(columnIndex);
+    }
+
+    public int getHoldability() throws SQLException {
+        return rs.getHoldability();
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        return rs.getInt(columnLabel);
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex);
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        return rs.getLong(columnLabel);
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        return rs.getLong(columnIndex);
+    }
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return rs.getMetaData();
+    }
+
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        return read(rs.getNCharacterStream(columnLabel));
+    }
+
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return read(rs.getNCharacterStream(columnIndex));
+    }
+
+    public NClob getNClob(String columnLabel) throws SQLException {
+        return read(rs.getNClob(columnLabel));
+    }
+
+    public NClob getNClob(int columnIndex) throws SQLException {
+        return read(rs.getNClob(columnIndex));
+    }
+
+    public String getNString(String columnLabel) throws SQLException {
+        return read(rs.getNString(columnLabel));
+    }
+
+    public String getNString(int columnIndex) throws SQLException {
+        return read(rs.getNString(columnIndex));
+    }
+
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return read(rs.getObject(columnLabel, type));
+    }
+
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        return read(rs.getObject(columnLabel, map));
+    }
+
+    public Object getObject(String columnLabel) throws SQLException {
+        return read(rs.getObject(columnLabel));
+    }
+
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        return read(rs.getObject(columnIndex, type));
+    }
+
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        return read(rs.getObject(columnIndex, map));
+    }
+
+    public Object getObject(int columnIndex) throws SQLException {
+        return read(rs.getObject(columnIndex));
+    }
+
+    public Ref getRef(String columnLabel) throws SQLException {
+        return read(rs.getRef(columnLabel));
+    }
+
+    public Ref getRef(int columnIndex) throws SQLException {
+        return read(rs.getRef(columnIndex));
+    }
+
+    public int getRow() throws SQLException {
+        return rs.getRow();
+    }
+
+    public RowId getRowId(String columnLabel) throws SQLException {
+        return read(rs.getRowId(columnLabel));
+    }
+
+    public RowId getRowId(int columnIndex) throws SQLException {
+        return read(rs.getRowId(columnIndex));
+    }
+
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        return read(rs.getSQLXML(columnLabel));
+    }
+
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        return read(rs.getSQLXML(columnIndex));
+    }
+
+    public short getShort(String columnLabel) throws SQLException {
+        return rs.getShort(columnLabel);
+    }
+
+    public short getShort(int columnIndex) throws SQLException {
+        return rs.getShort(columnIndex);
+    }
+
+    public Statement getStatement() throws SQLException {
+        return rs.getStatement();
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        return read(rs.getString(columnLabel));
+    }
+
+    public String getString(int columnIndex) throws SQLException {
+        return read(rs.getString(columnIndex));
+    }
+
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return rs.getTime(columnLabel, cal);
+    }
+
+    public Time getTime(String columnLabel) throws SQLException {
+        return read(rs.getTime(columnLabel));
+    }
+
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getTime(columnIndex, cal);
+    }
+
+    public Time getTime(int columnIndex) throws SQLException {
+        return read(rs.getTime(columnIndex));
+    }
+
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return rs.getTimestamp(columnLabel, cal);
+    }
+
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return read(rs.getTimestamp(columnLabel));
+    }
+
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        return rs.getTimestamp(columnIndex, cal);
+    }
+
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return read(rs.getTimestamp(columnIndex));
+    }
+
+    public int getType() throws SQLException {
+        return rs.getType();
+    }
+
+    public URL getURL(String columnLabel) throws SQLException {
+        return read(rs.getURL(columnLabel));
+    }
+
+    public URL getURL(int columnIndex) throws SQLException {
+        return read(rs.getURL(columnIndex));
+    }
+
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        return read(rs.getUnicodeStream(columnLabel));
+    }
+
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        return read(rs.getUnicodeStream(columnIndex));
+    }
+
+    public SQLWarning getWarnings() throws SQLException {
+        return rs.getWarnings();
+    }
+
+    public void insertRow() throws SQLException {
+        rs.insertRow();
+    }
+
+    public boolean isAfterLast() throws SQLException {
+        return rs.isAfterLast();
+    }
+
+    public boolean isBeforeFirst() throws SQLException {
+        return rs.isBeforeFirst();
+    }
+
+    public boolean isClosed() throws SQLException {
+        return rs.isClosed();
+    }
+
+    public boolean isFirst() throws SQLException {
+        return rs.isFirst();
+    }
+
+    public boolean isLast() throws SQLException {
+        return rs.isLast();
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return rs.isWrapperFor(iface);
+    }
+
+    public boolean last() throws SQLException {
+        return rs.last();
+    }
+
+    public void moveToCurrentRow() throws SQLException {
+        rs.moveToCurrentRow();
+    }
+
+    public void moveToInsertRow() throws SQLException {
+        rs.moveToInsertRow();
+    }
+
+    public boolean previous() throws SQLException {
+        return rs.previous();
+    }
+
+    public void refreshRow() throws SQLException {
+        rs.refreshRow();
+    }
+
+    public boolean relative(int rows) throws SQLException {
+        return rs.relative(rows);
+    }
+
+    public boolean rowDeleted() throws SQLException {
+        return rs.rowDeleted();
+    }
+
+    public boolean rowInserted() throws SQLException {
+        return rs.rowInserted();
+    }
+
+    public boolean rowUpdated() throws SQLException {
+        return rs.rowUpdated();
+    }
+
+    public void setFetchDirection(int direction) throws SQLException {
+        rs.setFetchDirection(direction);
+    }
+
+    public void setFetchSize(int rows) throws SQLException {
+        rs.setFetchSize(rows);
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return rs.unwrap(iface);
+    }
+
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        rs.updateArray(columnLabel, x);
+    }
+
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        rs.updateArray(columnIndex, x);
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x, length);
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x, length);
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        rs.updateAsciiStream(columnLabel, x);
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x, length);
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x, length);
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        rs.updateAsciiStream(columnIndex, x);
+    }
+
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        rs.updateBigDecimal(columnLabel, x);
+    }
+
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        rs.updateBigDecimal(columnIndex, x);
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x, length);
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x, length);
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        rs.updateBinaryStream(columnLabel, x);
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x, length);
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x, length);
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        rs.updateBinaryStream(columnIndex, x);
+    }
+
+    public void updateBlob(String columnLabel, InputStream x, long length) throws SQLException {
+        rs.updateBlob(columnLabel, x, length);
+    }
+
+    public void updateBlob(String columnLabel, InputStream x) throws SQLException {
+        rs.updateBlob(columnLabel, x);
+    }
+
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        rs.updateBlob(columnLabel, x);
+    }
+
+    public void updateBlob(int columnIndex, InputStream x, long length) throws SQLException {
+        rs.updateBlob(columnIndex, x, length);
+    }
+
+    public void updateBlob(int columnIndex, InputStream x) throws SQLException {
+        rs.updateBlob(columnIndex, x);
+    }
+
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        rs.updateBlob(columnIndex, x);
+    }
+
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        rs.updateBoolean(columnLabel, x);
+    }
+
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        rs.updateBoolean(columnIndex, x);
+    }
+
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        rs.updateByte(columnLabel, x);
+    }
+
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        rs.updateByte(columnIndex, x);
+    }
+
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        rs.updateBytes(columnLabel, x);
+    }
+
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        rs.updateBytes(columnIndex, x);
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x, int length) throws SQLException {
+        rs.updateCharacterStream(columnLabel, x, length);
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+        rs.updateCharacterStream(columnLabel, x, length);
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x) throws SQLException {
+        rs.updateCharacterStream(columnLabel, x);
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x, length);
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x, length);
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        rs.updateCharacterStream(columnIndex, x);
+    }
+
+    public void updateClob(String columnLabel, Reader x, long length) throws SQLException {
+        rs.updateClob(columnLabel, x, length);
+    }
+
+    public void updateClob(String columnLabel, Reader x) throws SQLException {
+        rs.updateClob(columnLabel, x);
+    }
+
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        rs.updateClob(columnLabel, x);
+    }
+
+    public void updateClob(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateClob(columnIndex, x, length);
+    }
+
+    public void updateClob(int columnIndex, Reader x) throws SQLException {
+        rs.updateClob(columnIndex, x);
+    }
+
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        rs.updateClob(columnIndex, x);
+    }
+
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        rs.updateDate(columnLabel, x);
+    }
+
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        rs.updateDate(columnIndex, x);
+    }
+
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        rs.updateDouble(columnLabel, x);
+    }
+
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        rs.updateDouble(columnIndex, x);
+    }
+
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        rs.updateFloat(columnLabel, x);
+    }
+
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        rs.updateFloat(columnIndex, x);
+    }
+
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        rs.updateInt(columnLabel, x);
+    }
+
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        rs.updateInt(columnIndex, x);
+    }
+
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        rs.updateLong(columnLabel, x);
+    }
+
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        rs.updateLong(columnIndex, x);
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+        rs.updateNCharacterStream(columnLabel, x, length);
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader x) throws SQLException {
+        rs.updateNCharacterStream(columnLabel, x);
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateNCharacterStream(columnIndex, x, length);
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        rs.updateNCharacterStream(columnIndex, x);
+    }
+
+    public void updateNClob(String columnLabel, Reader x, long length) throws SQLException {
+        rs.updateNClob(columnLabel, x, length);
+    }
+
+    public void updateNClob(String columnLabel, Reader x) throws SQLException {
+        rs.updateNClob(columnLabel, x);
+    }
+
+    public void updateNClob(String columnLabel, NClob x) throws SQLException {
+        rs.updateNClob(columnLabel, x);
+    }
+
+    public void updateNClob(int columnIndex, Reader x, long length) throws SQLException {
+        rs.updateNClob(columnIndex, x, length);
+    }
+
+    public void updateNClob(int columnIndex, Reader x) throws SQLException {
+        rs.updateNClob(columnIndex, x);
+    }
+
+    public void updateNClob(int columnIndex, NClob x) throws SQLException {
+        rs.updateNClob(columnIndex, x);
+    }
+
+    public void updateNString(String columnLabel, String x) throws SQLException {
+        rs.updateNString(columnLabel, x);
+    }
+
+    public void updateNString(int columnIndex, String x) throws SQLException {
+        rs.updateNString(columnIndex, x);
+    }
+
+    public void updateNull(String columnLabel) throws SQLException {
+        rs.updateNull(columnLabel);
+    }
+
+    public void updateNull(int columnIndex) throws SQLException {
+        rs.updateNull(columnIndex);
+    }
+
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        rs.updateObject(columnLabel, x, scaleOrLength);
+    }
+
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        rs.updateObject(columnLabel, x);
+    }
+
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        rs.updateObject(columnIndex, x, scaleOrLength);
+    }
+
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        rs.updateObject(columnIndex, x);
+    }
+
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        rs.updateRef(columnLabel, x);
+    }
+
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        rs.updateRef(columnIndex, x);
+    }
+
+    public void updateRow() throws SQLException {
+        rs.updateRow();
+    }
+
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        rs.updateRowId(columnLabel, x);
+    }
+
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        rs.updateRowId(columnIndex, x);
+    }
+
+    public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+        rs.updateSQLXML(columnLabel, x);
+    }
+
+    public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+        rs.updateSQLXML(columnIndex, x);
+    }
+
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        rs.updateShort(columnLabel, x);
+    }
+
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        rs.updateShort(columnIndex, x);
+    }
+
+    public void updateString(String columnLabel, String x) throws SQLException {
+        rs.updateString(columnLabel, x);
+    }
+
+    public void updateString(int columnIndex, String x) throws SQLException {
+        rs.updateString(columnIndex, x);
+    }
+
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        rs.updateTime(columnLabel, x);
+    }
+
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        rs.updateTime(columnIndex, x);
+    }
+
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        rs.updateTimestamp(columnLabel, x);
+    }
+
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        rs.updateTimestamp(columnIndex, x);
+    }
+
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+}
@@ -0,0 +1,224 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Triple sink which writes triples as N-Triples. Every triple is written immediately,
+ * only constant amount of memory is used. Output contains only ASCII characters,
+ * everything else is escaped.
+ * Last Modified 17.10.2026
+ */
+public class NTriplesSink implements TripleSink {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private final TermDictionary dictionary;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates new N-Triples sink
+     * @param out output stream, it isn't closed by sink
+     */
+    public NTriplesSink(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * Creates new N-Triples sink reusing serialized terms from dictionary
+     * @param out output stream, it isn't closed by sink
+     * @param dictionary dictionary of serialized terms, can be shared by more sinks, null disables it
+     */
+    public NTriplesSink(OutputStream out, TermDictionary dictionary) {
+        this.dictionary = dictionary;
+        try {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, "US-ASCII"));
+        } catch (java.io.UnsupportedEncodingException e) {
+            // US-ASCII is always supported
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+    }
+
+    public void add(Triple triple) throws IOException {
+        line.setLength(0);
+        appendTerm(triple.getSubject());
+        line.append(' ');
+        appendTerm(triple.getPredicate());
+        line.append(' ');
+        appendTerm(triple.getObject());
+        line.append(" .\n");
+        writer.append(line);
+    }
+
+    public void finish() throws IOException {
+        if (dictionary != null) {
+            dictionary.addLookups(hits, misses);
+            hits = 0;
+            misses = 0;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Appends node to line, serialized term is taken from dictionary if possible
+     */
+    private void appendTerm(Node node) {
+        if (dictionary == null) {
+            appendNode(line, node);
+            return;
+        }
+        String term = dictionary.get(node);
+        if (term != null) {
+            line.append(term);
+            hits++;
+        } else {
+            int start = line.length();
+            appendNode(line, node);
+            dictionary.put(node, line.substring(start));
+            misses++;
+        }
+        if (hits + misses == TermDictionary.LOOKUP_BATCH) {
+            dictionary.addLookups(hits, misses);
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Appends N-Triples representation of node
+     * @param sb target buffer
+     * @param node URI, blank node or literal
+     */
+    static void appendNode(StringBuilder sb, Node node) {
+        if (node.isURI()) {
+            appendURI(sb, node.getURI());
+        } else if (node.isBlank()) {
+            sb.append("_:");
+            appendBlankLabel(sb, node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            appendLiteral(sb, node);
+        } else {
+            throw new IllegalArgumentException("Node " + node + " can't be serialized");
+        }
+    }
+
+    /**
+     * Appends URI reference in angle brackets
+     * @param sb target buffer
+     * @param uri URI
+     */
+    static void appendURI(StringBuilder sb, String uri) {
+        sb.append('<');
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c <= 0x20 || c >= 0x7F || c == '<' || c == '>' || c == '"' || c == '\\') {
+                i = appendUnicodeEscape(sb, uri, i);
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('>');
+    }
+
+    /**
+     * Appends literal with its language tag or datatype
+     * @param sb target buffer
+     * @param node literal node
+     */
+    static void appendLiteral(StringBuilder sb, Node node) {
+        sb.append('"');
+        appendEscaped(sb, node.getLiteralLexicalForm());
+        sb.append('"');
+        String lang = node.getLiteralLanguage();
+        String datatype = node.getLiteralDatatypeURI();
+        if (lang != null && lang.length() > 0) {
+            sb.append('@').append(lang);
+        } else if (datatype != null) {
+            sb.append("^^");
+            appendURI(sb, datatype);
+        }
+    }
+
+    /**
+     * Appends blank node label. Characters which aren't allowed in N-Triples labels
+     * are replaced by 'x' followed by hexadecimal code, so mapping stays unique.
+     * @param sb target buffer
+     * @param label original blank node label
+     */
+    static void appendBlankLabel(StringBuilder sb, String label) {
+        sb.append('b');
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if ((c >= 'a' && c <= 'w') || (c >= 'y' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else {
+                sb.append('x').append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF]).append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    /**
+     * Appends content of string literal with N-Triples escapes
+     * @param sb target buffer
+     * @param s lexical form
+     */
+    static void appendEscaped(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c >= 0x7F) {
+                        i = appendUnicodeEscape(sb, s, i);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Appends \\uXXXX or \\UXXXXXXXX escape of character at given position
+     * @return index of last consumed character
+     */
+    private static int appendUnicodeEscape(StringBuilder sb, String s, int i) {
+        int cp = s.codePointAt(i);
+        if (cp > 0xFFFF) {
+            sb.append("\\U");
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                sb.append(HEX[(cp >> shift) & 0xF]);
+            }
+            return i + 1;
+        }
+        sb.append("\\u");
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            sb.append(HEX[(cp >> shift) & 0xF]);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,194 @@
+package dbtransfromer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output stream compressing data in independent blocks on several threads. Every block
+ * is written as complete gzip member, so output is concatenation of gzip members, which
+ * is valid gzip file readable by standard tools (gzip, zcat, GZIPInputStream).
+ * Blocks are compressed while writer keeps producing data, number of blocks waiting
+ * for compression is bounded, so memory consumption doesn't depend on size of data.
+ * Last Modified 17.10.2026
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    /**
+     * Default size of block (1 MB)
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final int blockSize;
+    private final int level;
+    private final int maxPending;
+    private final LinkedList<Future<byte[]>> pending = new LinkedList<Future<byte[]>>();
+    private byte[] buffer;
+    private int count = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates new stream with its own compression threads, blocks are compressed
+     * with the fastest compression level
+     * @param out underlying output stream
+     * @param threads number of compression threads
+     */
+    public ParallelGzipOutputStream(OutputStream out, int threads) {
+        this(out, Executors.newFixedThreadPool(threads), true, threads, DEFAULT_BLOCK_SIZE, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * Creates new stream compressing blocks on given executor
+     * @param out underlying output stream
+     * @param executor executor for compression tasks, it isn't shut down by stream
+     * @param threads number of threads of executor, it limits number of blocks waiting for compression
+     * @param blockSize size of uncompressed block in bytes
+     * @param level compression level (see {@link Deflater})
+     */
+    public ParallelGzipOutputStream(OutputStream out, ExecutorService executor, int threads, int blockSize, int level) {
+        this(out, executor, false, threads, blockSize, level);
+    }
+
+    private ParallelGzipOutputStream(OutputStream out, ExecutorService executor, boolean ownExecutor, int threads, int blockSize, int level) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.out = out;
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPending = 2 * Math.max(1, threads);
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses buffered data as separate block and writes all blocks into underlying stream
+     * @throws IOException if error during compression or writing happened
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            for (Future<byte[]> block : pending) {
+                block.cancel(true);
+            }
+            pending.clear();
+            if (ownExecutor) {
+                executor.shutdownNow();
+            }
+            out.close();
+        }
+    }
+
+    /**
+     * Passes buffer to compression, writes finished blocks and waits if too many blocks are pending
+     */
+    private void submitBlock() throws IOException {
+        final byte[] block = buffer;
+        final int length = count;
+        pending.add(executor.submit(new Callable<byte[]>() {
+
+            public byte[] call() throws IOException {
+                return compress(block, length);
+            }
+        }));
+        buffer = new byte[blockSize];
+        count = 0;
+        while (!pending.isEmpty() && (pending.size() >= maxPending || pending.getFirst().isDone())) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Waits for the oldest block and writes it into underlying stream
+     */
+    private void writeBlock() throws IOException {
+        Future<byte[]> block = pending.removeFirst();
+        try {
+            out.write(block.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Compression failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Compresses block into complete gzip member
+     */
+    private byte[] compress(byte[] block, int length) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(length / 4 + 64);
+        GZIPOutputStream gzip = new GZIPOutputStream(bout, 64 * 1024) {
+
+            {
+                def.setLevel(level);
+            }
+        };
+        gzip.write(block, 0, length);
+        gzip.close();
+        return bout.toByteArray();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+}
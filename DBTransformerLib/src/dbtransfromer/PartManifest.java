@@ -0,0 +1,261 @@
+package dbtransfromer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Manifest of output split into parts by {@link RollingFileSink}. For every part it keeps
+ * file name, number of triples, size of file and SHA-256 checksum of file, so loaders can
+ * ingest parts in parallel and check every part on its own. Manifest is text file with one
+ * part per line (name, triples, bytes and checksum separated by tabs), lines starting
+ * with '#' are comments.
+ * Last Modified 17.10.2026
+ */
+public class PartManifest {
+
+    /**
+     * Algorithm of part checksums
+     */
+    public static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final List<Part> parts = new ArrayList<Part>();
+
+    /**
+     * Creates empty manifest
+     */
+    public PartManifest() {
+    }
+
+    /**
+     * Reads manifest from file
+     * @param file manifest file
+     * @return manifest
+     * @throws IOException if manifest can't be read or is corrupted
+     */
+    public static PartManifest read(File file) throws IOException {
+        PartManifest manifest = new PartManifest();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    throw new IOException("Invalid line of manifest " + file + ": " + line);
+                }
+                try {
+                    manifest.add(new Part(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid line of manifest " + file + ": " + line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes manifest into file. Manifest is written into temporary file first and then
+     * renamed, so readers never see incomplete manifest.
+     * @param file manifest file
+     * @throws IOException if manifest can't be written
+     */
+    public synchronized void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8");
+        try {
+            writer.write("# DBTransformer parts: " + parts.size() + ", triples: " + getTriples() + "\n");
+            writer.write("# name\ttriples\tbytes\t" + CHECKSUM_ALGORITHM.toLowerCase() + "\n");
+            for (Part part : parts) {
+                writer.write(part.getName() + "\t" + part.getTriples() + "\t" + part.getBytes() + "\t" + part.getChecksum() + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+        if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Can't write manifest " + file);
+        }
+    }
+
+    /**
+     * Adds part into manifest, part with the same name is replaced
+     * @param part part of output
+     */
+    public synchronized void add(Part part) {
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getName().equals(part.getName())) {
+                parts.set(i, part);
+                return;
+            }
+        }
+        parts.add(part);
+    }
+
+    /**
+     * Checks size and checksum of part file
+     * @param directory directory with parts
+     * @param part part of output
+     * @return true if file exists and matches manifest
+     * @throws IOException if file can't be read
+     */
+    public boolean verify(File directory, Part part) throws IOException {
+        File file = new File(directory, part.getName());
+        if (!file.isFile() || file.length() != part.getBytes()) {
+            return false;
+        }
+        MessageDigest digest = newDigest();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return toHex(digest.digest()).equals(part.getChecksum());
+    }
+
+    /**
+     * Checks all parts and returns those which are missing or damaged
+     * @param directory directory with parts
+     * @return parts which have to be written again
+     * @throws IOException if file can't be read
+     */
+    public List<Part> verify(File directory) throws IOException {
+        List<Part> failed = new ArrayList<Part>();
+        for (Part part : getParts()) {
+            if (!verify(directory, part)) {
+                failed.add(part);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * returns parts in order of writing
+     * @return parts
+     */
+    public synchronized List<Part> getParts() {
+        return Collections.unmodifiableList(new ArrayList<Part>(parts));
+    }
+
+    /**
+     * returns number of triples in all parts
+     * @return number of triples
+     */
+    public synchronized long getTriples() {
+        long triples = 0;
+        for (Part part : parts) {
+            triples += part.getTriples();
+        }
+        return triples;
+    }
+
+    /**
+     * Creates digest of checksum algorithm
+     * @return new message digest
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns hexadecimal representation of checksum
+     * @param checksum bytes of checksum
+     * @return lowercase hexadecimal string
+     */
+    static String toHex(byte[] checksum) {
+        char[] chars = new char[checksum.length * 2];
+        for (int i = 0; i < checksum.length; i++) {
+            chars[2 * i] = HEX[(checksum[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[checksum[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * One part of output
+     */
+    public static class Part {
+
+        private final String name;
+        private final long triples;
+        private final long bytes;
+        private final String checksum;
+
+        /**
+         * Creates description of part
+         * @param name file name of part
+         * @param triples number of triples
+         * @param bytes size of file
+         * @param checksum hexadecimal SHA-256 checksum of file
+         */
+        public Part(String name, long triples, long bytes, String checksum) {
+            this.name = name;
+            this.triples = triples;
+            this.bytes = bytes;
+            this.checksum = checksum;
+        }
+
+        /**
+         * returns file name of part (relative to manifest)
+         * @return file name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * returns number of triples in part
+         * @return number of triples
+         */
+        public long getTriples() {
+            return triples;
+        }
+
+        /**
+         * returns size of part file
+         * @return size in bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * returns SHA-256 checksum of part file
+         * @return hexadecimal checksum
+         */
+        public String getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + triples + " triples, " + bytes + " B)";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dbtransfromer;
+
+/**
+ * The interface to be satisfied by observers of running transformation
+ * (see {@link DBTransformerImpl#setProgressListener(ProgressListener)}).
+ * Progress is reported periodically from background thread, so notifications don't slow
+ * down extraction; the last notification is sent by thread of transformation when
+ * transformation ends. Listener should return quickly, Swing components have to be
+ * updated through event dispatch thread.
+ * Last Modified 17.10.2026
+ */
+public interface ProgressListener {
+
+    /**
+     * Reports progress of transformation
+     * @param progress snapshot of progress
+     */
+    public void progress(TransformationProgress progress);
+}
@@ -0,0 +1,70 @@
+package dbtransfromer;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Periodically passes statistics of running transformation to {@link ProgressListener}.
+ * Snapshots are taken by timer thread, so extracting threads only update counters of
+ * {@link ExtractionStatistics}.
+ * Last Modified 17.10.2026
+ */
+class ProgressReporter {
+
+    private final ProgressListener listener;
+    private final ExtractionStatistics statistics;
+    private final long estimatedRows;
+    private Timer timer;
+
+    /**
+     * Creates new reporter
+     * @param listener progress listener
+     * @param statistics statistics of transformation
+     * @param estimatedRows estimated number of rows of mapped tables, -1 if it isn't known
+     */
+    ProgressReporter(ProgressListener listener, ExtractionStatistics statistics, long estimatedRows) {
+        this.listener = listener;
+        this.statistics = statistics;
+        this.estimatedRows = estimatedRows;
+    }
+
+    /**
+     * Starts periodic notifications
+     * @param interval interval between notifications in milliseconds
+     */
+    synchronized void start(long interval) {
+        timer = new Timer("DBTransformer progress", true);
+        timer.schedule(new TimerTask() {
+
+            @Override
+            public void run() {
+                notifyListener(false);
+            }
+        }, interval, interval);
+    }
+
+    /**
+     * Stops periodic notifications and sends the last one
+     */
+    void stop() {
+        synchronized (this) {
+            if (timer == null) {
+                return;
+            }
+            timer.cancel();
+            timer = null;
+        }
+        notifyListener(true);
+    }
+
+    private void notifyListener(boolean finished) {
+        TransformationProgress progress = new TransformationProgress(statistics.getCurrentTable(),
+                statistics.getTriples(), statistics.getRows(), statistics.getBytesWritten(),
+                statistics.getElapsedTime(), estimatedRows, finished);
+        try {
+            listener.progress(progress);
+        } catch (RuntimeException e) {
+            // failing listener mustn't stop transformation or timer
+        }
+    }
+}
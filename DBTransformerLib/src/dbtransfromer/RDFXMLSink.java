@@ -0,0 +1,180 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Triple sink which writes triples as RDF / XML. Consecutive triples with the same
+ * subject are written into one rdf:Description element. Nothing is collected
+ * in memory, so output of any size can be produced. Control characters which aren't
+ * allowed in XML 1.0 can't be escaped, triple containing them fails with IOException.
+ * Last Modified 17.10.2026
+ */
+public class RDFXMLSink implements TripleSink {
+
+    private static final String RDF_NS = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Map<String, String> namespaces = new HashMap<String, String>();
+    private Node lastSubject;
+
+    /**
+     * Creates new RDF / XML sink
+     * @param out output stream, it isn't closed by sink
+     */
+    public RDFXMLSink(OutputStream out) {
+        try {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+        } catch (java.io.UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        line.setLength(0);
+        line.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        line.append("<rdf:RDF\n    xmlns:rdf=\"").append(RDF_NS).append('"');
+        namespaces.put(RDF_NS, "rdf");
+        if (prefixes != null) {
+            for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+                String prefix = entry.getKey();
+                if (namespaces.containsKey(entry.getValue()) || !isPrefix(prefix)) {
+                    continue;
+                }
+                namespaces.put(entry.getValue(), prefix);
+                line.append("\n    xmlns:").append(prefix).append("=\"");
+                appendEscaped(line, entry.getValue(), null);
+                line.append('"');
+            }
+        }
+        line.append(">\n");
+        writer.append(line);
+    }
+
+    public void add(Triple triple) throws IOException {
+        line.setLength(0);
+        Node subject = triple.getSubject();
+        if (!subject.equals(lastSubject)) {
+            if (lastSubject != null) {
+                line.append("  </rdf:Description>\n");
+            }
+            line.append("  <rdf:Description ");
+            appendReference(line, "about", subject, subject);
+            line.append(">\n");
+            lastSubject = subject;
+        }
+        String predicate = triple.getPredicate().getURI();
+        int split = TurtleSink.splitIndex(predicate);
+        if (split <= 0) {
+            throw new IOException("Predicate " + predicate + " can't be serialized as RDF / XML");
+        }
+        String namespace = predicate.substring(0, split);
+        String prefix = namespaces.get(namespace);
+        String element;
+        line.append("    <");
+        if (prefix != null) {
+            element = prefix + ":" + predicate.substring(split);
+            line.append(element);
+        } else {
+            element = "ns:" + predicate.substring(split);
+            line.append(element).append(" xmlns:ns=\"");
+            appendEscaped(line, namespace, subject);
+            line.append('"');
+        }
+        Node object = triple.getObject();
+        if (object.isLiteral()) {
+            String lang = object.getLiteralLanguage();
+            String datatype = object.getLiteralDatatypeURI();
+            if (lang != null && lang.length() > 0) {
+                line.append(" xml:lang=\"");
+                appendEscaped(line, lang, subject);
+                line.append('"');
+            } else if (datatype != null) {
+                line.append(" rdf:datatype=\"");
+                appendEscaped(line, datatype, subject);
+                line.append('"');
+            }
+            line.append('>');
+            appendEscaped(line, object.getLiteralLexicalForm(), subject);
+            line.append("</").append(element).append(">\n");
+        } else {
+            line.append(' ');
+            appendReference(line, "resource", object, subject);
+            line.append("/>\n");
+        }
+        writer.append(line);
+    }
+
+    public void finish() throws IOException {
+        if (lastSubject != null) {
+            writer.append("  </rdf:Description>\n");
+            lastSubject = null;
+        }
+        writer.append("</rdf:RDF>\n");
+        writer.flush();
+    }
+
+    /**
+     * Appends rdf:about / rdf:resource or rdf:nodeID attribute
+     */
+    private void appendReference(StringBuilder sb, String attribute, Node node, Node subject) throws IOException {
+        if (node.isBlank()) {
+            sb.append("rdf:nodeID=\"");
+            NTriplesSink.appendBlankLabel(sb, node.getBlankNodeLabel());
+        } else {
+            sb.append("rdf:").append(attribute).append("=\"");
+            appendEscaped(sb, node.getURI(), subject);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Appends text with XML escapes, usable in attribute values and element content
+     * @param subject subject of written triple reported in error, null for namespace
+     * @throws IOException if text contains character which isn't allowed in XML
+     */
+    private static void appendEscaped(StringBuilder sb, String s, Node subject) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\r':
+                    sb.append("&#13;");
+                    break;
+                default:
+                    if (c < 0x20 && c != '\t' && c != '\n' || c == 0xFFFE || c == 0xFFFF) {
+                        throw new IOException((subject == null ? "Namespace " + s : "Triple of subject " + subject)
+                                + " contains character " + String.format("U+%04X", Integer.valueOf(c))
+                                + " which isn't allowed in XML");
+                    }
+                    sb.append(c);
+            }
+        }
+    }
+
+    private static boolean isPrefix(String prefix) {
+        if (prefix.length() == 0 || prefix.toLowerCase().startsWith("xml") || prefix.equals("ns")) {
+            return false;
+        }
+        return TurtleSink.splitIndex(prefix) == 0;
+    }
+}
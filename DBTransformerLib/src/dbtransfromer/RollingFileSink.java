@@ -0,0 +1,170 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Triple;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Triple sink which splits output into numbered part files. New part is started when current
+ * part reaches given number of triples or bytes, so parts always end on statement boundary
+ * and every part is complete file of its format (with its own prefixes or header). Size limit
+ * is checked against serialized data before compression and can be exceeded by size
+ * of buffer of inner sink. After every finished part manifest with triple counts and checksums
+ * (see {@link PartManifest}) is rewritten, so parts finished before failure stay listed.
+ * Subclass creates sink for format of output and can wrap file stream (e.g. by compression).
+ * Last Modified 17.10.2026
+ */
+public abstract class RollingFileSink implements TripleSink {
+
+    private final File directory;
+    private final String prefix;
+    private final String extension;
+    private final long maxTriples;
+    private final long maxBytes;
+    private final PartManifest manifest = new PartManifest();
+    private Map<String, String> prefixes = new HashMap<String, String>();
+    private int partNumber = 0;
+    private String partName;
+    private TripleSink partSink;
+    private OutputStream partOut;
+    private CountingOutputStream counter;
+    private MessageDigest digest;
+    private File file;
+    private long partTriples;
+
+    /**
+     * Creates new rolling sink
+     * @param directory output directory
+     * @param prefix prefix of names of part files and manifest
+     * @param extension extension of part files including dot
+     * @param maxTriples maximal number of triples in part, 0 for no limit
+     * @param maxBytes maximal size of serialized part in bytes, 0 for no limit
+     */
+    public RollingFileSink(File directory, String prefix, String extension, long maxTriples, long maxBytes) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.extension = extension;
+        this.maxTriples = maxTriples;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates sink writing triples of one part
+     * @param out output stream of part, it is closed by rolling sink
+     * @return sink for format of output
+     * @throws IOException if sink can't be created
+     */
+    protected abstract TripleSink createPartSink(OutputStream out) throws IOException;
+
+    /**
+     * Wraps output stream of part file, default implementation returns stream unchanged
+     * @param out stream writing part file
+     * @return stream to which inner sink writes
+     * @throws IOException if stream can't be created
+     */
+    protected OutputStream wrap(OutputStream out) throws IOException {
+        return out;
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        this.prefixes = prefixes;
+    }
+
+    public void add(Triple triple) throws IOException {
+        if (partSink == null) {
+            openPart();
+        }
+        partSink.add(triple);
+        partTriples++;
+        if (maxTriples > 0 && partTriples >= maxTriples || maxBytes > 0 && counter.getCount() >= maxBytes) {
+            closePart();
+        }
+    }
+
+    /**
+     * Finishes last part and writes manifest, empty output gets one empty part
+     */
+    public void finish() throws IOException {
+        if (partSink == null && partNumber == 0) {
+            openPart();
+        }
+        if (partSink != null) {
+            closePart();
+        }
+        manifest.write(getManifestFile());
+    }
+
+    /**
+     * Closes unfinished part after failure, part isn't added into manifest
+     */
+    public void close() {
+        if (partOut != null) {
+            try {
+                partOut.close();
+            } catch (IOException e) {
+                // part is incomplete anyway
+            }
+            partOut = null;
+            partSink = null;
+        }
+    }
+
+    /**
+     * Closes unfinished part and deletes all parts and manifest, used when transformation is cancelled
+     */
+    public void delete() {
+        close();
+        if (file != null) {
+            file.delete();
+        }
+        for (PartManifest.Part part : manifest.getParts()) {
+            new File(directory, part.getName()).delete();
+        }
+        getManifestFile().delete();
+    }
+
+    private void openPart() throws IOException {
+        partNumber++;
+        partName = prefix + ".part" + String.format("%05d", Integer.valueOf(partNumber)) + extension;
+        file = new File(directory, partName);
+        digest = PartManifest.newDigest();
+        partOut = new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024), digest);
+        counter = new CountingOutputStream(wrap(partOut), null);
+        partOut = counter;
+        partTriples = 0;
+        partSink = createPartSink(counter);
+        partSink.start(prefixes);
+    }
+
+    private void closePart() throws IOException {
+        partSink.finish();
+        partSink = null;
+        partOut.close();
+        partOut = null;
+        manifest.add(new PartManifest.Part(partName, partTriples, file.length(), PartManifest.toHex(digest.digest())));
+        manifest.write(getManifestFile());
+    }
+
+    /**
+     * returns manifest of finished parts
+     * @return manifest
+     */
+    public PartManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * returns manifest file, it is placed in output directory next to parts
+     * @return manifest file
+     */
+    public File getManifestFile() {
+        return new File(directory, prefix + ".manifest");
+    }
+}
@@ -0,0 +1,239 @@
+package dbtransfromer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Class describes how connections and statements of particular database have to be
+ * set up, so rows of large result sets are streamed from server-side cursor instead
+ * of being loaded into client memory at once. Dialect is chosen by JDBC driver class,
+ * JDBC URL is used when driver isn't known.
+ * Last Modified 17.10.2026
+ */
+public class SQLDialect {
+
+    /**
+     * Fetch size used when none is given (the same as default of DBParameters)
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    /**
+     * Number and last modification of user tables, views and their keys on SQL Server
+     */
+    private static final String SQL_SERVER_PROBE = "SELECT COUNT(*), CONVERT(varchar(23), MAX(modify_date), 121)"
+            + " FROM sys.objects WHERE type IN ('U', 'V', 'PK', 'F', 'UQ') AND is_ms_shipped = 0";
+    /**
+     * Dialect of unknown database, fetch size is only passed to driver
+     */
+    public static final SQLDialect GENERIC = new SQLDialect("Generic");
+    /**
+     * Oracle uses server-side cursor always, fetch size only sets number of rows per round trip
+     */
+    public static final SQLDialect ORACLE = new SQLDialect("Oracle") {
+
+        @Override
+        public String schemaProbe() {
+            return "SELECT COUNT(*), TO_CHAR(MAX(LAST_DDL_TIME), 'YYYY-MM-DD HH24:MI:SS') FROM USER_OBJECTS"
+                    + " WHERE OBJECT_TYPE IN ('TABLE', 'VIEW') AND OBJECT_NAME NOT LIKE 'BIN$%'";
+        }
+    };
+    /**
+     * PostgreSQL uses cursor only for forward only statements with positive fetch size
+     * and disabled autocommit, otherwise whole result set is read into memory
+     */
+    public static final SQLDialect POSTGRESQL = new SQLDialect("PostgreSQL") {
+
+        @Override
+        public void prepareConnection(Connection connection) throws SQLException {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+        }
+
+        @Override
+        public String schemaProbe() {
+            return "SELECT COUNT(*), SUM(hashtext(table_schema || '.' || table_name || '.' || column_name"
+                    + " || ' ' || data_type || ' ' || is_nullable)),"
+                    + " (SELECT SUM(hashtext(table_schema || '.' || table_name || '.' || column_name || ' ' || constraint_name))"
+                    + " FROM information_schema.key_column_usage WHERE table_schema NOT IN ('pg_catalog', 'information_schema'))"
+                    + " FROM information_schema.columns WHERE table_schema NOT IN ('pg_catalog', 'information_schema')";
+        }
+    };
+    /**
+     * Microsoft SQL Server driver streams rows only with server cursor (selectMethod=cursor)
+     * and adaptive response buffering
+     */
+    public static final SQLDialect MSSQL = new SQLDialect("MSSQL") {
+
+        @Override
+        public Properties connectionProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("selectMethod", "cursor");
+            properties.setProperty("responseBuffering", "adaptive");
+            return properties;
+        }
+
+        @Override
+        public String timestampLiteral(String value) {
+            return sqlServerTimestamp(value);
+        }
+
+        @Override
+        public String schemaProbe() {
+            return SQL_SERVER_PROBE;
+        }
+    };
+    /**
+     * jTDS driver for SQL Server streams rows only with server cursors
+     */
+    public static final SQLDialect JTDS = new SQLDialect("jTDS") {
+
+        @Override
+        public Properties connectionProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("useCursors", "true");
+            return properties;
+        }
+
+        @Override
+        public String timestampLiteral(String value) {
+            return sqlServerTimestamp(value);
+        }
+
+        @Override
+        public String schemaProbe() {
+            return SQL_SERVER_PROBE;
+        }
+    };
+    /**
+     * MySQL driver streams rows one by one only with fetch size Integer.MIN_VALUE
+     */
+    public static final SQLDialect MYSQL = new SQLDialect("MySQL") {
+
+        @Override
+        public int fetchSize(int requested) {
+            return Integer.MIN_VALUE;
+        }
+
+        @Override
+        public String schemaProbe() {
+            return "SELECT COUNT(*), SUM(CRC32(CONCAT_WS('.', TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE))),"
+                    + " (SELECT SUM(CRC32(CONCAT_WS('.', TABLE_NAME, COLUMN_NAME, CONSTRAINT_NAME, REFERENCED_TABLE_NAME,"
+                    + " REFERENCED_COLUMN_NAME))) FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE())"
+                    + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()";
+        }
+    };
+    private final String name;
+
+    /**
+     * Creates new dialect
+     * @param name name of dialect
+     */
+    protected SQLDialect(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Finds dialect of database
+     * @param driverClass JDBC driver class, can be null
+     * @param jdbcURL JDBC connection string, used if driver class is null or unknown
+     * @return dialect of database, {@link #GENERIC} for unknown database
+     */
+    public static SQLDialect forDriver(String driverClass, String jdbcURL) {
+        if (driverClass != null) {
+            if (driverClass.startsWith("oracle.jdbc.")) {
+                return ORACLE;
+            } else if (driverClass.equals("org.postgresql.Driver")) {
+                return POSTGRESQL;
+            } else if (driverClass.startsWith("com.microsoft.sqlserver.jdbc.")) {
+                return MSSQL;
+            } else if (driverClass.startsWith("net.sourceforge.jtds.")) {
+                return JTDS;
+            } else if (driverClass.startsWith("com.mysql.jdbc.")) {
+                return MYSQL;
+            }
+        }
+        if (jdbcURL != null) {
+            if (jdbcURL.startsWith("jdbc:oracle:")) {
+                return ORACLE;
+            } else if (jdbcURL.startsWith("jdbc:postgresql:")) {
+                return POSTGRESQL;
+            } else if (jdbcURL.startsWith("jdbc:sqlserver:")) {
+                return MSSQL;
+            } else if (jdbcURL.startsWith("jdbc:jtds:")) {
+                return JTDS;
+            } else if (jdbcURL.startsWith("jdbc:mysql:")) {
+                return MYSQL;
+            }
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Returns driver properties which have to be used when connection is opened
+     * @return connection properties, empty if no property is needed
+     */
+    public Properties connectionProperties() {
+        return new Properties();
+    }
+
+    /**
+     * Sets up opened connection for streaming
+     * @param connection database connection
+     * @throws SQLException if connection can't be set up
+     */
+    public void prepareConnection(Connection connection) throws SQLException {
+    }
+
+    /**
+     * Returns fetch size passed to driver
+     * @param requested requested number of rows fetched at once, 0 or less for default
+     * @return fetch size for statements of this database
+     */
+    public int fetchSize(int requested) {
+        return requested > 0 ? requested : DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * Returns query whose single result row changes whenever tables, columns or keys
+     * of database change, it is much cheaper than reading schema through JDBC metadata
+     * @return SQL query or null if database has no cheap summary of its schema
+     */
+    public String schemaProbe() {
+        return null;
+    }
+
+    /**
+     * Creates SQL expression of timestamp value, default is ANSI literal TIMESTAMP '...'
+     * @param value timestamp in JDBC escape format yyyy-mm-dd hh:mm:ss[.f...]
+     * @return SQL expression of timestamp
+     */
+    public String timestampLiteral(String value) {
+        return "TIMESTAMP '" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * SQL Server doesn't know ANSI timestamp literal, string is converted by ODBC canonical
+     * style 121 into datetime2 which keeps at most 7 fractional digits
+     */
+    private static String sqlServerTimestamp(String value) {
+        int dot = value.lastIndexOf('.');
+        if (dot >= 0 && value.length() - dot - 1 > 7) {
+            value = value.substring(0, dot + 8);
+        }
+        return "CONVERT(datetime2, '" + value.replace("'", "''") + "', 121)";
+    }
+
+    /**
+     * returns name of dialect
+     * @return name of dialect
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
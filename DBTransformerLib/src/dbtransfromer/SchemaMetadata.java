@@ -0,0 +1,194 @@
+package dbtransfromer;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Helper methods reading information about tables from JDBC database metadata.
+ * Last Modified 17.10.2026
+ */
+final class SchemaMetadata {
+
+    private SchemaMetadata() {
+    }
+
+    /**
+     * Finds single column numeric primary key of table
+     * @param connection database connection
+     * @param table table name, possibly with schema
+     * @return name of key column or null if table hasn't such key
+     * @throws SQLException if error during reading metadata happened
+     */
+    static String numericKey(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String[] name = splitName(metaData, table);
+        ResultSet rs = metaData.getPrimaryKeys(null, name[0], name[1]);
+        String key = null;
+        int count = 0;
+        try {
+            while (rs.next()) {
+                key = rs.getString("COLUMN_NAME");
+                count++;
+            }
+        } finally {
+            rs.close();
+        }
+        if (count != 1) {
+            return null;
+        }
+        rs = metaData.getColumns(null, name[0], name[1], key);
+        try {
+            while (rs.next()) {
+                switch (rs.getInt("DATA_TYPE")) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                    case Types.BIGINT:
+                    case Types.NUMERIC:
+                    case Types.DECIMAL:
+                        return key;
+                    default:
+                        return null;
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        return null;
+    }
+
+    /**
+     * Finds timestamp column whose name signals time of last modification
+     * (contains "modif", "updat" or "chang")
+     * @param connection database connection
+     * @param table table name, possibly with schema
+     * @return name of column or null if table hasn't such column
+     * @throws SQLException if error during reading metadata happened
+     */
+    static String modificationColumn(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String[] name = splitName(metaData, table);
+        ResultSet rs = metaData.getColumns(null, name[0], name[1], null);
+        try {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                String lower = column.toLowerCase();
+                if (isTimestamp(rs.getInt("DATA_TYPE"))
+                        && (lower.indexOf("modif") >= 0 || lower.indexOf("updat") >= 0 || lower.indexOf("chang") >= 0)) {
+                    return column;
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        return null;
+    }
+
+    /**
+     * Returns JDBC type of column
+     * @param connection database connection
+     * @param table table name, possibly with schema
+     * @param column column name
+     * @return type from {@link java.sql.Types} or {@link java.sql.Types#OTHER} if column isn't found
+     * @throws SQLException if error during reading metadata happened
+     */
+    static int columnType(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String[] name = splitName(metaData, table);
+        ResultSet rs = metaData.getColumns(null, name[0], name[1], null);
+        try {
+            while (rs.next()) {
+                if (rs.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return rs.getInt("DATA_TYPE");
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        return Types.OTHER;
+    }
+
+    /**
+     * Returns definition of column, columns with equal definitions hold the same values
+     * in the same form
+     * @param connection database connection
+     * @param table table name, possibly with schema
+     * @param column column name
+     * @return JDBC type, type name, size and decimal digits or null if column isn't found
+     * @throws SQLException if error during reading metadata happened
+     */
+    static String columnDefinition(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String[] name = splitName(metaData, table);
+        ResultSet rs = metaData.getColumns(null, name[0], name[1], null);
+        try {
+            while (rs.next()) {
+                if (rs.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return rs.getInt("DATA_TYPE") + " " + rs.getString("TYPE_NAME")
+                            + "(" + rs.getInt("COLUMN_SIZE") + "," + rs.getInt("DECIMAL_DIGITS") + ")";
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        return null;
+    }
+
+    /**
+     * Check if JDBC type is date or timestamp
+     * @param type type from {@link java.sql.Types}
+     * @return true for date and timestamp types
+     */
+    static boolean isTimestamp(int type) {
+        return type == Types.TIMESTAMP || type == Types.DATE;
+    }
+
+    /**
+     * Estimates number of rows of table from index statistics
+     * @param connection database connection
+     * @param table table name, possibly with schema
+     * @return estimated number of rows or -1 if driver doesn't provide statistics
+     */
+    static long estimateRows(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String[] name = splitName(metaData, table);
+        long rows = -1;
+        ResultSet rs = metaData.getIndexInfo(null, name[0], name[1], false, true);
+        try {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    rows = Math.max(rows, rs.getLong("CARDINALITY"));
+                }
+            }
+        } finally {
+            rs.close();
+        }
+        return rows > 0 ? rows : -1;
+    }
+
+    /**
+     * Splits table name into schema and table in case used by database
+     * @param metaData database metadata
+     * @param table table name, possibly with schema
+     * @return array {schema, table}, schema can be null
+     */
+    static String[] splitName(DatabaseMetaData metaData, String table) throws SQLException {
+        String schema = null;
+        int dot = table.lastIndexOf('.');
+        if (dot > 0) {
+            schema = table.substring(0, dot);
+            table = table.substring(dot + 1);
+        }
+        if (metaData.storesUpperCaseIdentifiers()) {
+            schema = schema == null ? null : schema.toUpperCase();
+            table = table.toUpperCase();
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            schema = schema == null ? null : schema.toLowerCase();
+            table = table.toLowerCase();
+        }
+        return new String[]{schema, table};
+    }
+}
@@ -0,0 +1,240 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import de.fuberlin.wiwiss.d2rq.vocab.D2RQ;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class rewrites self-referencing foreign keys of D2RQ mapping, so they don't need
+ * their own SQL query. D2RQ serves all property bridges with the same tables, joins and
+ * conditions from one SELECT of union of their columns. Bridge of foreign key
+ * (d2rq:refersToClassMap with d2rq:join on primary key of referenced table) into another
+ * table is served by the same query too, because D2RQ leaves out join of table whose
+ * columns are used only in URI pattern. Only join of table with itself through d2rq:alias
+ * is always executed as separate query, so rewriting saves one query per such bridge
+ * and doesn't reduce reading of tables without self-references. When URI
+ * pattern of referenced ClassMap contains only joined primary key columns, its URIs
+ * can be made from foreign key columns of the table itself, so join is replaced by URI
+ * pattern over these columns and bridge joins the query of its ClassMap. Rewritten
+ * bridge doesn't check that referenced row exists, so mapping should be rewritten only
+ * if joins follow foreign key constraints (as in mapping generated from database).
+ * <p>
+ * URI made from foreign key is the same as URI of referenced row only if both columns
+ * hold equal values in the same form. Character keys are never rewritten, because
+ * case-insensitive collation or CHAR padding joins values which differ as strings.
+ * Other keys are rewritten only if both columns have the same type, size and scale.
+ * Last Modified 17.10.2026
+ */
+public class SingleScanRewriter {
+
+    /**
+     * Properties which make referenced ClassMap more than plain URI pattern
+     */
+    private static final Property[] RESTRICTING_PROPERTIES = {
+        D2RQ.condition, D2RQ.join, D2RQ.alias, D2RQ.translateWith, D2RQ.containsDuplicates
+    };
+    private static final Pattern JOIN = Pattern.compile("\\s*(\\S+)\\s*(<=|=>|=)\\s*(\\S+)\\s*");
+    private static final Pattern ALIAS = Pattern.compile("\\s*(\\S+)\\s+(?:AS|as)\\s+(\\S+)\\s*");
+    private static final Pattern COLUMN = Pattern.compile("@@([^@|]+)((?:\\|[^@]*)?)@@");
+
+    private SingleScanRewriter() {
+    }
+
+    /**
+     * Replaces joins of foreign key bridges by URI patterns over foreign key columns
+     * @param mapModel D2RQ mapping, it is changed
+     * @param connection connection to database of mapping, types of joined columns are compared
+     * @return number of rewritten property bridges
+     * @throws SQLException if error during reading metadata happened
+     */
+    public static int rewrite(Model mapModel, Connection connection) throws SQLException {
+        List<Resource> bridges = new ArrayList<Resource>();
+        StmtIterator it = mapModel.listStatements(null, D2RQ.refersToClassMap, (RDFNode) null);
+        while (it.hasNext()) {
+            bridges.add(it.nextStatement().getSubject());
+        }
+        // table.column -> definition of column
+        Map<String, String> definitions = new HashMap<String, String>();
+        int rewritten = 0;
+        for (Resource bridge : bridges) {
+            if (rewrite(mapModel, bridge, connection, definitions)) {
+                rewritten++;
+            }
+        }
+        return rewritten;
+    }
+
+    /**
+     * Rewrites one bridge if its joins can be replaced, otherwise mapping isn't changed
+     */
+    private static boolean rewrite(Model mapModel, Resource bridge, Connection connection,
+            Map<String, String> definitions) throws SQLException {
+        Resource classMap = singleResource(bridge, D2RQ.belongsToClassMap);
+        Resource referenced = singleResource(bridge, D2RQ.refersToClassMap);
+        if (classMap == null || referenced == null || bridge.hasProperty(D2RQ.condition)
+                || bridge.hasProperty(D2RQ.uriPattern) || bridge.hasProperty(D2RQ.uriColumn)) {
+            return false;
+        }
+        for (Property property : RESTRICTING_PROPERTIES) {
+            if (referenced.hasProperty(property)) {
+                return false;
+            }
+        }
+        RDFNode storage = singleNode(classMap, D2RQ.dataStorage);
+        if (storage == null || !storage.equals(singleNode(referenced, D2RQ.dataStorage))) {
+            return false;
+        }
+        RDFNode referencedPattern = singleNode(referenced, D2RQ.uriPattern);
+        String table = MappingSplitter.tableOf(mapModel, classMap);
+        String referencedTable = MappingSplitter.tableOf(mapModel, referenced);
+        if (!(referencedPattern instanceof Literal) || table == null || referencedTable == null) {
+            return false;
+        }
+        // alias -> table, aliases are used for joins of table with itself
+        Map<String, String> aliases = new HashMap<String, String>();
+        for (Statement s : bridge.listProperties(D2RQ.alias).toList()) {
+            Matcher m = ALIAS.matcher(s.getString());
+            if (!m.matches() || !m.group(1).equals(referencedTable)) {
+                return false;
+            }
+            aliases.put(m.group(2), m.group(1));
+        }
+        // column of referenced table -> column of table of bridge
+        Map<String, String> columns = new HashMap<String, String>();
+        for (Statement s : bridge.listProperties(D2RQ.join).toList()) {
+            Matcher m = JOIN.matcher(s.getString());
+            if (!m.matches()) {
+                return false;
+            }
+            String column1 = m.group(1);
+            String column2 = m.group(3);
+            String referencedColumn;
+            String localColumn;
+            if (isReferencedSide(column1, table, referencedTable, aliases) && isLocalSide(column2, table)) {
+                referencedColumn = referencedTable + "." + columnName(column1);
+                localColumn = column2;
+            } else if (isReferencedSide(column2, table, referencedTable, aliases) && isLocalSide(column1, table)) {
+                referencedColumn = referencedTable + "." + columnName(column2);
+                localColumn = column1;
+            } else {
+                return false;
+            }
+            if (!isSameKey(connection, definitions, referencedColumn, localColumn)) {
+                return false;
+            }
+            columns.put(referencedColumn, localColumn);
+        }
+        if (columns.isEmpty()) {
+            return false;
+        }
+        Matcher m = COLUMN.matcher(((Literal) referencedPattern).getString());
+        StringBuffer pattern = new StringBuffer();
+        while (m.find()) {
+            String column = columns.get(m.group(1).trim());
+            if (column == null) {
+                // URI needs column which isn't joined
+                return false;
+            }
+            m.appendReplacement(pattern, Matcher.quoteReplacement("@@" + column + m.group(2) + "@@"));
+        }
+        m.appendTail(pattern);
+        bridge.removeAll(D2RQ.join);
+        bridge.removeAll(D2RQ.alias);
+        bridge.removeAll(D2RQ.refersToClassMap);
+        bridge.addProperty(D2RQ.uriPattern, pattern.toString());
+        return true;
+    }
+
+    /**
+     * Check if joined columns have the same definition of type which isn't character type
+     */
+    private static boolean isSameKey(Connection connection, Map<String, String> definitions,
+            String referencedColumn, String localColumn) throws SQLException {
+        String definition = definition(connection, definitions, referencedColumn);
+        if (definition == null || !definition.equals(definition(connection, definitions, localColumn))) {
+            return false;
+        }
+        // definition starts with JDBC type
+        return isExactType(Integer.parseInt(definition.substring(0, definition.indexOf(' '))));
+    }
+
+    private static String definition(Connection connection, Map<String, String> definitions, String column) throws SQLException {
+        if (!definitions.containsKey(column)) {
+            definitions.put(column, SchemaMetadata.columnDefinition(connection, relationName(column), columnName(column)));
+        }
+        return definitions.get(column);
+    }
+
+    /**
+     * Check if values of type are equal exactly when their string forms are equal
+     */
+    private static boolean isExactType(int type) {
+        switch (type) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check if column is in referenced table, in join of table with itself it has to be in alias
+     */
+    private static boolean isReferencedSide(String column, String table, String referencedTable, Map<String, String> aliases) {
+        String relation = relationName(column);
+        if (aliases.containsKey(relation)) {
+            return true;
+        }
+        return relation.equals(referencedTable) && !relation.equals(table);
+    }
+
+    private static boolean isLocalSide(String column, String table) {
+        return relationName(column).equals(table);
+    }
+
+    private static String relationName(String column) {
+        int dot = column.lastIndexOf('.');
+        return dot < 0 ? "" : column.substring(0, dot);
+    }
+
+    private static String columnName(String column) {
+        return column.substring(column.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Returns value of property if resource has exactly one
+     */
+    private static RDFNode singleNode(Resource resource, Property property) {
+        List<Statement> values = resource.listProperties(property).toList();
+        return values.size() == 1 ? values.get(0).getObject() : null;
+    }
+
+    private static Resource singleResource(Resource resource, Property property) {
+        RDFNode node = singleNode(resource, property);
+        return node != null && node.isResource() ? (Resource) node : null;
+    }
+}
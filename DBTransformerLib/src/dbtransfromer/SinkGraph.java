@@ -0,0 +1,51 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.TripleMatch;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.graph.impl.GraphBase;
+import com.hp.hpl.jena.shared.JenaException;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.util.iterator.NullIterator;
+import java.io.IOException;
+
+/**
+ * Write-only Jena graph passing every added triple into triple sink. Jena readers parse
+ * into model of this graph, so triples are streamed into sink without keeping them
+ * in memory. Graph is always empty when it is queried.
+ * Last Modified 17.10.2026
+ */
+class SinkGraph extends GraphBase {
+
+    private final TripleSink sink;
+
+    /**
+     * Creates new graph
+     * @param sink sink receiving added triples, it has to be started
+     */
+    SinkGraph(TripleSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void performAdd(Triple t) {
+        try {
+            sink.add(t);
+        } catch (IOException e) {
+            throw new JenaException(e);
+        }
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(TripleMatch m) {
+        return NullIterator.instance();
+    }
+
+    /**
+     * Returns I/O error of sink wrapped by Jena exception thrown from reader
+     * @param e exception thrown from reader
+     * @return error of sink or null if reader failed for another reason
+     */
+    static IOException ioCause(JenaException e) {
+        return e.getCause() instanceof IOException ? (IOException) e.getCause() : null;
+    }
+}
@@ -0,0 +1,549 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Triple;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local store of intermediate snapshots of extractions. Snapshot is binary RDF file
+ * (see {@link BinaryRDFSink}) named "name.vNNNNN.dbtrdf", every extraction under the same
+ * name gets next version. Finished snapshots are listed in manifest "snapshots.manifest"
+ * (see {@link PartManifest}) with their number of triples, size and SHA-256 checksum,
+ * unfinished snapshot is never listed. Snapshots are read through memory mapped file,
+ * so any output format can be produced from them again without access to database
+ * (see {@link DBTransformerImpl#convert(int, SnapshotStore.Snapshot)}).
+ * Manifest is read and written only under lock of file "snapshots.lock", so any number
+ * of stores in one or more processes can share the same directory.
+ * <p>
+ * Usage: SnapshotStore directory list | verify | prune name keep | convert name[:version] format output
+ * <p>
+ * Format is name of TYPE_ constant of {@link DBTransformerImpl} without prefix (e.g. TURTLE).
+ * Last Modified 17.10.2026
+ */
+public class SnapshotStore {
+
+    /**
+     * Extension of snapshot files
+     */
+    public static final String EXTENSION = ".dbtrdf";
+    /**
+     * Name of manifest file
+     */
+    public static final String MANIFEST = "snapshots.manifest";
+    /**
+     * Name of lock file
+     */
+    public static final String LOCK = "snapshots.lock";
+    /**
+     * Locks of directories used in this JVM, file lock is held by whole JVM,
+     * so it doesn't exclude threads of one process
+     */
+    private static final Map<File, ReentrantLock> LOCKS = new HashMap<File, ReentrantLock>();
+    private final File directory;
+
+    /**
+     * Creates store in given directory, directory is created when first snapshot is written
+     * @param directory directory of snapshots
+     */
+    public SnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Runs snapshot tool from command line
+     * @param args arguments, see description of class
+     * @throws Exception if command failed
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: SnapshotStore directory list | verify | prune name keep | convert name[:version] format output");
+            System.exit(2);
+        }
+        SnapshotStore store = new SnapshotStore(new File(args[0]));
+        String command = args[1];
+        if (command.equals("list")) {
+            for (Snapshot snapshot : store.getSnapshots()) {
+                System.out.println(snapshot.getName() + "\t" + snapshot.getVersion() + "\t" + snapshot.getTriples()
+                        + "\t" + snapshot.getBytes() + "\t" + snapshot.getFile().getName());
+            }
+        } else if (command.equals("verify")) {
+            boolean valid = true;
+            for (Snapshot snapshot : store.getSnapshots()) {
+                boolean ok = store.verify(snapshot);
+                valid &= ok;
+                System.out.println(snapshot.getFile().getName() + "\t" + (ok ? "OK" : "DAMAGED"));
+            }
+            System.exit(valid ? 0 : 1);
+        } else if (command.equals("prune") && args.length == 4) {
+            for (Snapshot snapshot : store.prune(args[2], Integer.parseInt(args[3]))) {
+                System.out.println("deleted\t" + snapshot.getFile().getName());
+            }
+        } else if (command.equals("convert") && args.length == 5) {
+            String name = args[2];
+            Snapshot snapshot;
+            int colon = name.lastIndexOf(':');
+            if (colon > 0) {
+                snapshot = store.getSnapshot(name.substring(0, colon), Integer.parseInt(name.substring(colon + 1)));
+            } else {
+                snapshot = store.getLatest(name);
+            }
+            if (snapshot == null) {
+                System.err.println("Snapshot " + name + " doesn't exist");
+                System.exit(1);
+            }
+            DBTransformerImpl transformer = new DBTransformerImpl();
+            int type = transformer.getClass().getField("TYPE_" + args[3].toUpperCase()).getInt(transformer);
+            transformer.setOutput(new File(args[4]).getAbsolutePath());
+            if (!transformer.convert(type, snapshot)) {
+                System.exit(1);
+            }
+        } else {
+            System.err.println("Unknown command " + command);
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Creates sink writing new version of snapshot. Snapshot is written into temporary file
+     * and added into store when sink is finished.
+     * @param name name of snapshot, it must not contain path separators
+     * @return sink writing snapshot, it has to be closed
+     * @throws IOException if snapshot file can't be created
+     */
+    public SnapshotSink createSink(String name) throws IOException {
+        if (name.indexOf('/') >= 0 || name.indexOf(File.separatorChar) >= 0) {
+            throw new IllegalArgumentException("Invalid name of snapshot: " + name);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        String fileName;
+        RandomAccessFile lock = lock();
+        try {
+            int version = 1;
+            for (Snapshot snapshot : readManifest()) {
+                if (snapshot.getName().equals(name)) {
+                    version = Math.max(version, snapshot.getVersion() + 1);
+                }
+            }
+            // temporary file reserves version for unfinished snapshot of any store
+            while (new File(directory, fileName(name, version)).exists()
+                    || !new File(directory, fileName(name, version) + ".tmp").createNewFile()) {
+                version++;
+            }
+            fileName = fileName(name, version);
+        } finally {
+            unlock(lock);
+        }
+        return new SnapshotSink(fileName);
+    }
+
+    /**
+     * Returns all finished snapshots
+     * @return snapshots in order of writing
+     * @throws IOException if manifest can't be read
+     */
+    public List<Snapshot> getSnapshots() throws IOException {
+        if (!directory.isDirectory()) {
+            return new ArrayList<Snapshot>();
+        }
+        RandomAccessFile lock = lock();
+        try {
+            return readManifest();
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Returns all versions of snapshot
+     * @param name name of snapshot
+     * @return snapshots of given name ordered by version
+     * @throws IOException if manifest can't be read
+     */
+    public List<Snapshot> getSnapshots(String name) throws IOException {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (Snapshot snapshot : getSnapshots()) {
+            if (snapshot.getName().equals(name)) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Returns given version of snapshot
+     * @param name name of snapshot
+     * @param version version of snapshot
+     * @return snapshot or null if it doesn't exist
+     * @throws IOException if manifest can't be read
+     */
+    public Snapshot getSnapshot(String name, int version) throws IOException {
+        for (Snapshot snapshot : getSnapshots(name)) {
+            if (snapshot.getVersion() == version) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the latest version of snapshot
+     * @param name name of snapshot
+     * @return snapshot or null if there is no snapshot of given name
+     * @throws IOException if manifest can't be read
+     */
+    public Snapshot getLatest(String name) throws IOException {
+        Snapshot latest = null;
+        for (Snapshot snapshot : getSnapshots(name)) {
+            if (latest == null || snapshot.getVersion() > latest.getVersion()) {
+                latest = snapshot;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Checks size and checksum of snapshot file
+     * @param snapshot snapshot of this store
+     * @return true if file exists and matches manifest
+     * @throws IOException if file can't be read
+     */
+    public boolean verify(Snapshot snapshot) throws IOException {
+        return new PartManifest().verify(directory, snapshot.part);
+    }
+
+    /**
+     * Opens reader of snapshot, file is read through memory mapping
+     * @param snapshot snapshot of this store
+     * @return reader of triples, caller has to close it
+     * @throws IOException if file can't be opened or doesn't contain binary RDF
+     */
+    public BinaryRDFReader open(Snapshot snapshot) throws IOException {
+        return new BinaryRDFReader(new MappedInputStream(snapshot.getFile()));
+    }
+
+    /**
+     * Deletes old versions of snapshot
+     * @param name name of snapshot
+     * @param keep number of the latest versions which are kept
+     * @return deleted snapshots
+     * @throws IOException if manifest can't be written
+     */
+    public List<Snapshot> prune(String name, int keep) throws IOException {
+        List<Snapshot> deleted = new ArrayList<Snapshot>();
+        if (!directory.isDirectory()) {
+            return deleted;
+        }
+        RandomAccessFile lock = lock();
+        try {
+            List<Snapshot> snapshots = readManifest();
+            List<Snapshot> versions = new ArrayList<Snapshot>();
+            for (Snapshot snapshot : snapshots) {
+                if (snapshot.getName().equals(name)) {
+                    versions.add(snapshot);
+                }
+            }
+            if (versions.size() <= keep) {
+                return deleted;
+            }
+            deleted.addAll(versions.subList(0, versions.size() - keep));
+            PartManifest manifest = new PartManifest();
+            for (Snapshot snapshot : snapshots) {
+                if (!deleted.contains(snapshot)) {
+                    manifest.add(snapshot.part);
+                }
+            }
+            // manifest is written first, so it never lists missing file
+            manifest.write(getManifestFile());
+            for (Snapshot snapshot : deleted) {
+                if (!snapshot.getFile().delete()) {
+                    // mapped file can't be deleted on Windows until mapping is garbage collected
+                    snapshot.getFile().deleteOnExit();
+                }
+            }
+        } finally {
+            unlock(lock);
+        }
+        return deleted;
+    }
+
+    /**
+     * Adds finished snapshot into manifest, caller has to hold lock
+     */
+    private void add(PartManifest.Part part) throws IOException {
+        File manifestFile = getManifestFile();
+        PartManifest manifest = manifestFile.isFile() ? PartManifest.read(manifestFile) : new PartManifest();
+        manifest.add(part);
+        manifest.write(manifestFile);
+    }
+
+    /**
+     * Reads snapshots listed in manifest, caller has to hold lock
+     */
+    private List<Snapshot> readManifest() throws IOException {
+        File manifestFile = getManifestFile();
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        if (!manifestFile.isFile()) {
+            return snapshots;
+        }
+        for (PartManifest.Part part : PartManifest.read(manifestFile).getParts()) {
+            snapshots.add(new Snapshot(part));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Locks directory against other threads and processes, lock is released by {@link #unlock(RandomAccessFile)}
+     * @return opened lock file
+     */
+    private RandomAccessFile lock() throws IOException {
+        ReentrantLock local = localLock();
+        local.lock();
+        boolean locked = false;
+        try {
+            RandomAccessFile file = new RandomAccessFile(new File(directory, LOCK), "rw");
+            try {
+                file.getChannel().lock();
+                locked = true;
+                return file;
+            } finally {
+                if (!locked) {
+                    file.close();
+                }
+            }
+        } finally {
+            if (!locked) {
+                local.unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases lock of directory, closing of file releases file lock
+     */
+    private void unlock(RandomAccessFile file) throws IOException {
+        try {
+            file.close();
+        } finally {
+            localLock().unlock();
+        }
+    }
+
+    /**
+     * Returns lock of directory shared by all stores of this JVM
+     */
+    private ReentrantLock localLock() throws IOException {
+        File key = directory.getCanonicalFile();
+        synchronized (LOCKS) {
+            ReentrantLock lock = LOCKS.get(key);
+            if (lock == null) {
+                lock = new ReentrantLock();
+                LOCKS.put(key, lock);
+            }
+            return lock;
+        }
+    }
+
+    private static String fileName(String name, int version) {
+        return name + ".v" + String.format("%05d", Integer.valueOf(version)) + EXTENSION;
+    }
+
+    /**
+     * returns directory of snapshots
+     * @return directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * returns manifest file of store
+     * @return manifest file
+     */
+    public File getManifestFile() {
+        return new File(directory, MANIFEST);
+    }
+
+    /**
+     * Finished snapshot of extraction
+     */
+    public class Snapshot {
+
+        private final PartManifest.Part part;
+        private final String name;
+        private final int version;
+
+        Snapshot(PartManifest.Part part) throws IOException {
+            this.part = part;
+            String fileName = part.getName();
+            int mark = fileName.lastIndexOf(".v");
+            if (mark < 0 || !fileName.endsWith(EXTENSION)) {
+                throw new IOException("Invalid snapshot file " + fileName);
+            }
+            try {
+                this.version = Integer.parseInt(fileName.substring(mark + 2, fileName.length() - EXTENSION.length()));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid snapshot file " + fileName);
+            }
+            this.name = fileName.substring(0, mark);
+        }
+
+        /**
+         * returns name of snapshot
+         * @return name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * returns version of snapshot, versions of one name start at 1
+         * @return version
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * returns snapshot file
+         * @return file
+         */
+        public File getFile() {
+            return new File(directory, part.getName());
+        }
+
+        /**
+         * returns number of triples in snapshot
+         * @return number of triples
+         */
+        public long getTriples() {
+            return part.getTriples();
+        }
+
+        /**
+         * returns size of snapshot file
+         * @return size in bytes
+         */
+        public long getBytes() {
+            return part.getBytes();
+        }
+
+        /**
+         * returns SHA-256 checksum of snapshot file
+         * @return hexadecimal checksum
+         */
+        public String getChecksum() {
+            return part.getChecksum();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Snapshot && ((Snapshot) obj).part.getName().equals(part.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return part.getName().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + " v" + version + " (" + part.getTriples() + " triples, " + part.getBytes() + " B)";
+        }
+    }
+
+    /**
+     * Triple sink writing new version of snapshot
+     */
+    public class SnapshotSink implements TripleSink {
+
+        private final String fileName;
+        private final File tmp;
+        private final MessageDigest digest = PartManifest.newDigest();
+        private final OutputStream out;
+        private final BinaryRDFSink sink;
+        private long triples = 0;
+        private Snapshot snapshot = null;
+        private boolean closed = false;
+
+        SnapshotSink(String fileName) throws IOException {
+            this.fileName = fileName;
+            this.tmp = new File(directory, fileName + ".tmp");
+            try {
+                this.out = new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 64 * 1024), digest);
+            } catch (IOException e) {
+                tmp.delete();
+                throw e;
+            }
+            this.sink = new BinaryRDFSink(out);
+        }
+
+        public void start(Map<String, String> prefixes) throws IOException {
+            sink.start(prefixes);
+        }
+
+        public void add(Triple triple) throws IOException {
+            sink.add(triple);
+            triples++;
+        }
+
+        /**
+         * Finishes snapshot file and adds it into store
+         */
+        public void finish() throws IOException {
+            sink.finish();
+            closed = true;
+            out.close();
+            File file = new File(directory, fileName);
+            PartManifest.Part part = new PartManifest.Part(fileName, triples, tmp.length(), PartManifest.toHex(digest.digest()));
+            // version stays reserved by temporary or final file all the time
+            RandomAccessFile lock = lock();
+            try {
+                if (!tmp.renameTo(file)) {
+                    tmp.delete();
+                    throw new IOException("Can't write snapshot " + file);
+                }
+                SnapshotStore.this.add(part);
+            } finally {
+                unlock(lock);
+            }
+            snapshot = new Snapshot(part);
+        }
+
+        /**
+         * Deletes unfinished snapshot, finished snapshot is kept
+         */
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                // file is deleted anyway
+            }
+            tmp.delete();
+        }
+
+        /**
+         * returns finished snapshot
+         * @return snapshot or null if sink isn't finished
+         */
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package dbtransfromer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Output stream buffering written data on heap up to given budget. When budget is exceeded,
+ * data are moved into temporary file and all further data are written there. Buffered data
+ * are read back from heap array without copying or sequentially from temporary file,
+ * so small transformations stay in memory and large ones don't fail on size of heap.
+ * Temporary file is removed by {@link #delete()}. File isn't memory mapped, because
+ * mapped file can't be deleted on Windows until mapping is garbage collected.
+ * Last Modified 17.10.2026
+ */
+public class SpillBuffer extends OutputStream {
+
+    /**
+     * Default size of data kept on heap (64 MB)
+     */
+    public static final long DEFAULT_HEAP_BUDGET = 64L * 1024 * 1024;
+    /**
+     * Maximal size of byte array
+     */
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private final long heapBudget;
+    private final File directory;
+    private HeapBuffer heap = new HeapBuffer();
+    private File file = null;
+    private OutputStream fileOut = null;
+    private long size = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates new buffer with default heap budget spilling into default temporary directory
+     */
+    public SpillBuffer() {
+        this(DEFAULT_HEAP_BUDGET, null);
+    }
+
+    /**
+     * Creates new buffer
+     * @param heapBudget maximal number of bytes kept on heap
+     * @param directory directory of temporary file, null for default temporary directory
+     */
+    public SpillBuffer(long heapBudget, File directory) {
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException("Heap budget must not be negative");
+        }
+        this.heapBudget = Math.min(heapBudget, MAX_ARRAY_SIZE);
+        this.directory = directory;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        reserve(1);
+        if (fileOut != null) {
+            fileOut.write(b);
+        } else {
+            heap.write(b);
+        }
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        reserve(len);
+        if (fileOut != null) {
+            fileOut.write(b, off, len);
+        } else {
+            heap.write(b, off, len);
+        }
+        size += len;
+    }
+
+    /**
+     * Moves data into temporary file if next write exceeds heap budget
+     */
+    private void reserve(int len) throws IOException {
+        if (closed) {
+            throw new IOException("Buffer is closed");
+        }
+        if (fileOut == null && size + len > heapBudget) {
+            file = File.createTempFile("dbtransformer-", ".spill", directory);
+            fileOut = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024);
+            heap.writeTo(fileOut);
+            heap = null;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileOut != null) {
+            fileOut.flush();
+        }
+    }
+
+    /**
+     * Ends writing, buffered data can be still read
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (fileOut != null) {
+            fileOut.close();
+        }
+    }
+
+    /**
+     * Closes buffer and opens stream reading all buffered data
+     * @return input stream, caller has to close it
+     * @throws IOException if temporary file can't be read or buffer was deleted
+     */
+    public InputStream openInputStream() throws IOException {
+        close();
+        if (heap != null) {
+            return new ByteArrayInputStream(heap.buffer(), 0, heap.size());
+        }
+        if (file == null) {
+            throw new IOException("Buffer was deleted");
+        }
+        return new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+    }
+
+    /**
+     * Returns copy of buffered data
+     * @return buffered data
+     * @throws IOException if data can't be read or they don't fit into byte array
+     */
+    public byte[] toByteArray() throws IOException {
+        if (heap != null) {
+            return heap.toByteArray();
+        }
+        if (size > MAX_ARRAY_SIZE) {
+            throw new IOException("Buffered data (" + size + " B) don't fit into byte array");
+        }
+        byte[] data = new byte[(int) size];
+        InputStream in = openInputStream();
+        try {
+            int offset = 0;
+            int read;
+            while (offset < data.length && (read = in.read(data, offset, data.length - offset)) > 0) {
+                offset += read;
+            }
+        } finally {
+            in.close();
+        }
+        return data;
+    }
+
+    /**
+     * Closes buffer, releases heap and deletes temporary file
+     */
+    public void delete() {
+        try {
+            close();
+        } catch (IOException e) {
+            // file is deleted anyway
+        }
+        heap = null;
+        if (file != null) {
+            if (!file.delete()) {
+                // file is still open, e.g. by unclosed input stream
+                file.deleteOnExit();
+            }
+            file = null;
+        }
+    }
+
+    /**
+     * returns number of written bytes
+     * @return size of buffered data
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Check if data were moved into temporary file
+     * @return true if heap budget was exceeded
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * returns temporary file with data
+     * @return temporary file or null if data are on heap
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * returns maximal number of bytes kept on heap
+     * @return heap budget
+     */
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * Byte array stream giving access to its array
+     */
+    private static class HeapBuffer extends ByteArrayOutputStream {
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded dictionary of serialized terms shared by sinks of one transformation. Predicates,
+ * classes, vocabulary and subject IRIs repeat in many triples, with dictionary they are
+ * escaped and abbreviated only once and the same string is written again without new
+ * allocation. Dictionary is direct mapped cache: every node has one slot given by its hash,
+ * colliding node replaces previous one, so size is fixed and lookup needs no locking.
+ * Long literals, which are rarely repeated, aren't stored. Sinks count hits and misses
+ * by themselves and add them into dictionary in batches (see {@link #LOOKUP_BATCH}),
+ * so threads sharing dictionary don't update common counters on every lookup.
+ * Last Modified 17.10.2026
+ */
+public class TermDictionary {
+
+    /**
+     * Default number of slots
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    /**
+     * Number of lookups after which sink adds its hits and misses into dictionary
+     */
+    static final int LOOKUP_BATCH = 8192;
+    /**
+     * Maximal length of literal stored in dictionary
+     */
+    private static final int MAX_LITERAL_LENGTH = 32;
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates dictionary with default capacity
+     */
+    public TermDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates dictionary
+     * @param capacity number of slots, it is rounded up to power of two
+     */
+    public TermDictionary(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns serialized form of node
+     * @param node node
+     * @return serialized term or null if node isn't in dictionary
+     */
+    public String get(Node node) {
+        Entry entry = entries[slot(node)];
+        if (entry != null && entry.node.equals(node)) {
+            return entry.term;
+        }
+        return null;
+    }
+
+    /**
+     * Stores serialized form of node, long literals are ignored
+     * @param node node
+     * @param term serialized term
+     */
+    public void put(Node node, String term) {
+        if (node.isLiteral() && node.getLiteralLexicalForm().length() > MAX_LITERAL_LENGTH) {
+            return;
+        }
+        // entry is immutable, so it can be published without synchronization
+        entries[slot(node)] = new Entry(node, term);
+    }
+
+    /**
+     * Adds lookups counted by sink
+     * @param hits number of terms found in dictionary
+     * @param misses number of terms which weren't found
+     */
+    void addLookups(long hits, long misses) {
+        this.hits.addAndGet(hits);
+        this.misses.addAndGet(misses);
+    }
+
+    private int slot(Node node) {
+        int h = node.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    /**
+     * returns number of lookups answered by dictionary, lookups of running sinks
+     * are added in batches
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * returns number of lookups of terms which had to be serialized
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * returns number of slots
+     * @return capacity of dictionary
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    private static final class Entry {
+
+        private final Node node;
+        private final String term;
+
+        Entry(Node node, String term) {
+            this.node = node;
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package dbtransfromer;
+
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Cancellable handle of running transformation. Job can be run by its own thread or
+ * submitted to executor. Cancelling of job interrupts transformation threads and makes
+ * transformation stop at the next triple. Transformation with pooled connections (pool
+ * in DBParameters or {@link DBTransformerImpl#setMeteredConnections(boolean)}) registers
+ * their JDBC statements in job, then cancelling calls {@link Statement#cancel()} also
+ * on queries executed by database, otherwise running query isn't stopped. Connections
+ * are returned when transformation leaves, partial output is deleted (appended delta
+ * is truncated to its previous length).
+ * Last Modified 17.10.2026
+ */
+public class TransformationJob extends FutureTask<Boolean> {
+
+    private static final ThreadLocal<TransformationJob> current = new ThreadLocal<TransformationJob>();
+    private final String name;
+    private final Map<Statement, Boolean> statements = new WeakHashMap<Statement, Boolean>();
+
+    /**
+     * Creates new job
+     * @param name name of job
+     * @param task transformation, it returns true if transformation was successful
+     */
+    public TransformationJob(String name, Callable<Boolean> task) {
+        super(task);
+        this.name = name;
+    }
+
+    /**
+     * Runs transformation, transformation is bound to this job in calling thread
+     */
+    @Override
+    public void run() {
+        TransformationJob previous = current.get();
+        current.set(this);
+        try {
+            super.run();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * Cancels job. If job is running, statements executed by database are cancelled
+     * and transformation stops as soon as possible.
+     * @param mayInterruptIfRunning true if thread running job should be interrupted
+     * @return false if job couldn't be cancelled (e.g. it is finished already)
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!super.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+        List<Statement> running;
+        synchronized (statements) {
+            running = new ArrayList<Statement>(statements.keySet());
+            statements.clear();
+        }
+        for (Statement statement : running) {
+            cancel(statement);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels statement if it isn't closed
+     */
+    private static void cancel(Statement statement) {
+        try {
+            try {
+                if (statement.isClosed()) {
+                    return;
+                }
+            } catch (AbstractMethodError e) {
+                // JDBC 3 driver
+            }
+            statement.cancel();
+        } catch (SQLException e) {
+            // statement is finished or driver doesn't support cancelling
+        }
+    }
+
+    /**
+     * Registers statement executed for this job, statement is cancelled with job.
+     * Statements are held weakly, so closed statements don't have to be unregistered.
+     * @param statement JDBC statement
+     * @throws SQLException if job is cancelled already, statement is closed then
+     */
+    void register(Statement statement) throws SQLException {
+        synchronized (statements) {
+            if (!isCancelled()) {
+                statements.put(statement, Boolean.TRUE);
+                return;
+            }
+        }
+        statement.close();
+        throw new SQLException("Transformation " + name + " was cancelled");
+    }
+
+    /**
+     * Throws exception if job is cancelled, transformation calls it at safe points
+     * @throws InterruptedIOException if job is cancelled
+     */
+    void checkCancelled() throws InterruptedIOException {
+        if (isCancelled()) {
+            throw new InterruptedIOException("Transformation " + name + " was cancelled");
+        }
+    }
+
+    /**
+     * returns name of job
+     * @return name of job
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Binds job to current thread, statements of pooled connections created by the thread
+     * are registered in job
+     * @param job job or null to unbind
+     */
+    static void bind(TransformationJob job) {
+        if (job == null) {
+            current.remove();
+        } else {
+            current.set(job);
+        }
+    }
+
+    /**
+     * returns job bound to current thread
+     * @return job or null if thread doesn't run job
+     */
+    static TransformationJob current() {
+        return current.get();
+    }
+}
@@ -0,0 +1,151 @@
+package dbtransfromer;
+
+/**
+ * Snapshot of progress of transformation passed to {@link ProgressListener}. Estimated
+ * time to end is computed from rows read so far and estimated row counts of mapped tables,
+ * so it is known only when rows are measured (exactly on connections of {@link ConnectionPool},
+ * otherwise by rdf:type triples) and database provides table statistics.
+ * Last Modified 17.10.2026
+ */
+public class TransformationProgress {
+
+    /**
+     * The highest fraction reported before transformation ends, estimates of rows can be too low
+     */
+    private static final double MAX_FRACTION = 0.99;
+    private final String table;
+    private final long triples;
+    private final long rows;
+    private final long bytesWritten;
+    private final long elapsedTime;
+    private final long estimatedRows;
+    private final boolean finished;
+
+    /**
+     * Creates new snapshot
+     * @param table table or extraction unit processed now, null if it isn't known
+     * @param triples number of produced triples
+     * @param rows number of rows read from database, -1 if rows aren't measured
+     * @param bytesWritten number of bytes of serialized triples
+     * @param elapsedTime time since start of transformation in milliseconds
+     * @param estimatedRows estimated number of rows of all mapped tables, -1 if it isn't known
+     * @param finished true if transformation ended
+     */
+    public TransformationProgress(String table, long triples, long rows, long bytesWritten,
+            long elapsedTime, long estimatedRows, boolean finished) {
+        this.table = table;
+        this.triples = triples;
+        this.rows = rows;
+        this.bytesWritten = bytesWritten;
+        this.elapsedTime = elapsedTime;
+        this.estimatedRows = estimatedRows;
+        this.finished = finished;
+    }
+
+    /**
+     * returns table (FROM clause of query) or extraction unit processed now
+     * @return name of table or null if it isn't known
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * returns number of produced triples
+     * @return number of triples
+     */
+    public long getTriples() {
+        return triples;
+    }
+
+    /**
+     * returns number of rows read from database
+     * @return number of rows or -1 if rows aren't measured
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * returns number of bytes of serialized triples (before compression)
+     * @return number of bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * returns time since start of transformation
+     * @return time in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * returns estimated number of rows of all mapped tables
+     * @return number of rows or -1 if it isn't known
+     */
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Check if transformation ended
+     * @return true for the last notification
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * returns estimated fraction of work done
+     * @return number between 0 and 1 or -1 if it isn't known
+     */
+    public double getFraction() {
+        if (finished) {
+            return 1;
+        }
+        if (rows < 0 || estimatedRows <= 0) {
+            return -1;
+        }
+        return Math.min(MAX_FRACTION, (double) rows / estimatedRows);
+    }
+
+    /**
+     * returns estimated time to end of transformation
+     * @return time in milliseconds or -1 if it isn't known
+     */
+    public long getEta() {
+        double fraction = getFraction();
+        if (fraction < 0 || fraction >= MAX_FRACTION) {
+            return finished ? 0 : -1;
+        }
+        if (fraction == 0) {
+            return -1;
+        }
+        return (long) (elapsedTime * (1 - fraction) / fraction);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (table != null && !finished) {
+            sb.append(table).append(": ");
+        }
+        if (rows >= 0) {
+            sb.append(rows).append(" rows, ");
+        }
+        sb.append(triples).append(" triples, ").append(bytesWritten / 1024).append(" kB");
+        double fraction = getFraction();
+        if (fraction >= 0 && !finished) {
+            sb.append(", ").append((int) (fraction * 100)).append(" %");
+        }
+        long eta = getEta();
+        if (eta > 0) {
+            long seconds = eta / 1000;
+            sb.append(", ETA ").append(seconds / 60).append(':').append(String.format("%02d", Long.valueOf(seconds % 60)));
+        }
+        return sb.toString();
+    }
+}
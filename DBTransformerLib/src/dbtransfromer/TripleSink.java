@@ -0,0 +1,34 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Triple;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The interface to be satisfied by consumers of triples produced during transformation.
+ * Sink receives triples one by one, so whole RDF graph never has to be held in memory.
+ * Last Modified 17.10.2026
+ */
+public interface TripleSink {
+
+    /**
+     * Starts output, called once before first triple
+     * @param prefixes namespace prefixes (prefix -> namespace URI) which can be used for abbreviation
+     * @throws IOException if error during writing happened
+     */
+    public void start(Map<String, String> prefixes) throws IOException;
+
+    /**
+     * Consumes one triple
+     * @param triple triple to be consumed
+     * @throws IOException if error during writing happened
+     */
+    public void add(Triple triple) throws IOException;
+
+    /**
+     * Finishes output, called once after last triple. Sink flushes its output
+     * but underlying stream isn't closed.
+     * @throws IOException if error during writing happened
+     */
+    public void finish() throws IOException;
+}
@@ -0,0 +1,185 @@
+package dbtransfromer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Triple sink which writes triples in Turtle syntax. URIs are abbreviated by given
+ * prefixes and consecutive triples with the same subject are grouped together.
+ * Unlike pretty printing writers nothing is collected in memory.
+ * Last Modified 17.10.2026
+ */
+public class TurtleSink implements TripleSink {
+
+    private static final String RDF_TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Map<String, String> namespaces = new HashMap<String, String>();
+    private final TermDictionary dictionary;
+    private long hits = 0;
+    private long misses = 0;
+    private Node lastSubject;
+
+    /**
+     * Creates new Turtle sink
+     * @param out output stream, it isn't closed by sink
+     */
+    public TurtleSink(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * Creates new Turtle sink reusing serialized terms from dictionary. Terms depend
+     * on prefixes, so dictionary can be shared only by sinks started with the same prefixes.
+     * @param out output stream, it isn't closed by sink
+     * @param dictionary dictionary of serialized terms, null disables it
+     */
+    public TurtleSink(OutputStream out, TermDictionary dictionary) {
+        this.dictionary = dictionary;
+        try {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, "US-ASCII"));
+        } catch (java.io.UnsupportedEncodingException e) {
+            // US-ASCII is always supported
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    public void start(Map<String, String> prefixes) throws IOException {
+        if (prefixes == null) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            if (!isName(entry.getKey(), 0)) {
+                continue;
+            }
+            namespaces.put(entry.getValue(), entry.getKey());
+            line.setLength(0);
+            line.append("@prefix ").append(entry.getKey()).append(": ");
+            NTriplesSink.appendURI(line, entry.getValue());
+            line.append(" .\n");
+            writer.append(line);
+        }
+        writer.append('\n');
+    }
+
+    public void add(Triple triple) throws IOException {
+        line.setLength(0);
+        if (triple.getSubject().equals(lastSubject)) {
+            line.append(" ;\n    ");
+        } else {
+            if (lastSubject != null) {
+                line.append(" .\n");
+            }
+            appendNode(line, triple.getSubject());
+            line.append(' ');
+            lastSubject = triple.getSubject();
+        }
+        if (triple.getPredicate().isURI() && RDF_TYPE.equals(triple.getPredicate().getURI())) {
+            line.append('a');
+        } else {
+            appendNode(line, triple.getPredicate());
+        }
+        line.append(' ');
+        appendNode(line, triple.getObject());
+        writer.append(line);
+    }
+
+    public void finish() throws IOException {
+        if (lastSubject != null) {
+            writer.append(" .\n");
+            lastSubject = null;
+        }
+        if (dictionary != null) {
+            dictionary.addLookups(hits, misses);
+            hits = 0;
+            misses = 0;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Appends node, serialized term is taken from dictionary if possible
+     */
+    private void appendNode(StringBuilder sb, Node node) {
+        if (dictionary == null) {
+            appendTerm(sb, node);
+            return;
+        }
+        String term = dictionary.get(node);
+        if (term != null) {
+            sb.append(term);
+            hits++;
+        } else {
+            int start = sb.length();
+            appendTerm(sb, node);
+            dictionary.put(node, sb.substring(start));
+            misses++;
+        }
+        if (hits + misses == TermDictionary.LOOKUP_BATCH) {
+            dictionary.addLookups(hits, misses);
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Appends node, URI is written as prefixed name if possible
+     */
+    private void appendTerm(StringBuilder sb, Node node) {
+        if (node.isURI()) {
+            String uri = node.getURI();
+            int split = splitIndex(uri);
+            if (split > 0) {
+                String prefix = namespaces.get(uri.substring(0, split));
+                if (prefix != null) {
+                    sb.append(prefix).append(':').append(uri, split, uri.length());
+                    return;
+                }
+            }
+        }
+        NTriplesSink.appendNode(sb, node);
+    }
+
+    /**
+     * Finds beginning of local name which can be safely written after prefix
+     * @param uri URI
+     * @return index of local name or -1 if there isn't any
+     */
+    static int splitIndex(String uri) {
+        int i = uri.length();
+        while (i > 0 && isNameChar(uri.charAt(i - 1))) {
+            i--;
+        }
+        while (i < uri.length() && !isNameStartChar(uri.charAt(i))) {
+            i++;
+        }
+        return i < uri.length() ? i : -1;
+    }
+
+    private static boolean isName(String s, int from) {
+        if (s.length() <= from || !isNameStartChar(s.charAt(from))) {
+            return false;
+        }
+        for (int i = from + 1; i < s.length(); i++) {
+            if (!isNameChar(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameStartChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isNameChar(char c) {
+        return isNameStartChar(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+}
@@ -0,0 +1,202 @@
+package dbtransfromer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Instance of this class keeps watermarks of tables for incremental transformation.
+ * Watermark is the highest value of monotonically increasing column (numeric ID or time
+ * of last modification) which was already transformed. Watermarks are stored in local
+ * properties file, so next run extracts only rows past them.
+ * Last Modified 17.10.2026
+ */
+public class WatermarkTracker {
+
+    private static final String COLUMN = ".column";
+    private static final String VALUE = ".value";
+    private final File stateFile;
+    private final Properties state = new Properties();
+    private final Properties pending = new Properties();
+    private final Map<String, String> columns = new HashMap<String, String>();
+    private final boolean initialized;
+
+    /**
+     * Creates new tracker and loads stored watermarks
+     * @param stateFile file with watermarks, it is created by first {@link #commit()}
+     * @throws IOException if state file can't be read
+     */
+    public WatermarkTracker(File stateFile) throws IOException {
+        this.stateFile = stateFile;
+        this.initialized = stateFile.exists();
+        if (initialized) {
+            InputStream in = new FileInputStream(stateFile);
+            try {
+                state.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Sets watermark column of table explicitly. Tables without explicit column use
+     * timestamp column named like "modified", "updated" or "changed", then single
+     * column numeric primary key.
+     * @param table table name as used in D2RQ mapping
+     * @param column watermark column
+     */
+    public void setColumn(String table, String column) {
+        columns.put(table, column);
+    }
+
+    /**
+     * Returns stored watermark of table
+     * @param table table name as used in D2RQ mapping
+     * @return last transformed value or null if table wasn't transformed yet
+     */
+    public String getWatermark(String table) {
+        return state.getProperty(table + VALUE);
+    }
+
+    /**
+     * Check if watermarks were stored by previous run
+     * @return true if state file existed
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Restricts extraction units to rows between stored watermark and current maximum
+     * of watermark column. Units of tables without watermark column are extracted only
+     * by the first (full) run. New watermarks are kept until {@link #commit()}.
+     * @param units extraction units
+     * @param connection database connection
+     * @return restricted units, units without new rows are left out
+     * @throws SQLException if error during reading watermarks happened
+     */
+    public List<ExtractionUnit> restrict(List<ExtractionUnit> units, Connection connection) throws SQLException {
+        List<ExtractionUnit> result = new ArrayList<ExtractionUnit>();
+        Map<String, String> conditions = new HashMap<String, String>();
+        SQLDialect dialect = SQLDialect.forDriver(null, connection.getMetaData().getURL());
+        for (ExtractionUnit unit : units) {
+            String table = unit.getTable();
+            String column = table == null ? null : watermarkColumn(connection, table);
+            if (column == null) {
+                if (!initialized) {
+                    result.add(unit);
+                }
+                continue;
+            }
+            if (!conditions.containsKey(table)) {
+                conditions.put(table, condition(connection, dialect, table, column));
+            }
+            String condition = conditions.get(table);
+            if (condition != null) {
+                result.add(unit.restrict(condition, ""));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores new watermarks of extracted tables into state file
+     * @throws IOException if state file can't be written
+     */
+    public void commit() throws IOException {
+        state.putAll(pending);
+        pending.clear();
+        File tmp = new File(stateFile.getPath() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            state.store(out, "DBTransformer watermarks");
+        } finally {
+            out.close();
+        }
+        if (stateFile.exists() && !stateFile.delete() || !tmp.renameTo(stateFile)) {
+            throw new IOException("Can't replace " + stateFile);
+        }
+    }
+
+    /**
+     * Returns configured or detected watermark column of table
+     */
+    private String watermarkColumn(Connection connection, String table) throws SQLException {
+        String column = columns.get(table);
+        if (column == null) {
+            column = SchemaMetadata.modificationColumn(connection, table);
+        }
+        if (column == null) {
+            column = SchemaMetadata.numericKey(connection, table);
+        }
+        return column;
+    }
+
+    /**
+     * Reads current maximum of watermark column and creates condition selecting new rows
+     * @return SQL condition or null if there are no new rows
+     */
+    private String condition(Connection connection, SQLDialect dialect, String table, String column) throws SQLException {
+        boolean timestamp = SchemaMetadata.isTimestamp(SchemaMetadata.columnType(connection, table, column));
+        String qualified = table + "." + column;
+        String max;
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery("SELECT MAX(" + qualified + ") FROM " + table);
+            try {
+                if (!rs.next()) {
+                    return null;
+                }
+                if (timestamp) {
+                    Timestamp value = rs.getTimestamp(1);
+                    max = value == null ? null : value.toString();
+                } else {
+                    max = rs.getString(1);
+                }
+            } finally {
+                rs.close();
+            }
+        } finally {
+            stmt.close();
+        }
+        if (max == null) {
+            return null;
+        }
+        String last = column.equals(state.getProperty(table + COLUMN)) ? getWatermark(table) : null;
+        if (max.equals(last)) {
+            return null;
+        }
+        pending.setProperty(table + COLUMN, column);
+        pending.setProperty(table + VALUE, max);
+        String condition = qualified + " <= " + literal(dialect, max, timestamp);
+        if (last != null) {
+            condition = qualified + " > " + literal(dialect, last, timestamp) + " AND " + condition;
+        }
+        return condition;
+    }
+
+    /**
+     * Creates SQL literal of watermark value, timestamp literal depends on database
+     */
+    private static String literal(SQLDialect dialect, String value, boolean timestamp) {
+        if (timestamp) {
+            return dialect.timestampLiteral(value);
+        }
+        return new BigDecimal(value).toPlainString();
+    }
+}
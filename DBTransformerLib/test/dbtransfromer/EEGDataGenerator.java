@@ -0,0 +1,516 @@
+package dbtransfromer;
+
+import de.fuberlin.wiwiss.d2rq.map.Database;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Random;
+
+/**
+ * Generator of synthetic data of EEG experiments for scale testing. It creates relational
+ * schema with experiments, subjects, recordings, channels and samples linked by foreign keys
+ * and fills it with given numbers of rows. Recordings are distributed among subjects with
+ * Zipf skew (few subjects have most recordings), samples are sine waves of EEG frequency
+ * bands with Gaussian or uniform noise. All values are derived from seed, so the same
+ * parameters always give the same data. Existing tables of schema are replaced.
+ * <p>
+ * Usage: EEGDataGenerator [-driver class] [-jdbc url] [-user name] [-password password]
+ * [-seed n] [-experiments n] [-subjects n] [-recordings n] [-channels n] [-samples n]
+ * [-skew s] [-noise GAUSSIAN|UNIFORM] [-amplitude a] [-noiseLevel n]
+ * <p>
+ * Generator is started by ant target "generate-eeg" of DBTransformerLib.
+ * Last Modified 17.10.2026
+ */
+public class EEGDataGenerator {
+
+    /**
+     * Gaussian noise of samples
+     */
+    public static final int NOISE_GAUSSIAN = 0;
+    /**
+     * Uniform noise of samples
+     */
+    public static final int NOISE_UNIFORM = 1;
+    private static final String[] TABLES = {"SAMPLE", "CHANNEL", "RECORDING", "SUBJECT", "EXPERIMENT"};
+    private static final String[] ELECTRODES = {"Fp1", "Fp2", "F7", "F3", "Fz", "F4", "F8", "T3", "C3", "Cz",
+        "C4", "T4", "T5", "P3", "Pz", "P4", "T6", "O1", "O2", "A1", "A2"};
+    private static final String[] PARADIGMS = {"P300", "N400", "resting state", "motor imagery", "SSVEP", "auditory oddball"};
+    private static final double[][] BANDS = {{0.5, 4}, {4, 8}, {8, 13}, {13, 30}, {30, 45}};
+    private static final int BATCH_SIZE = 1000;
+    private final DBParameters dbparam;
+    private long seed = 1;
+    private int experiments = 10;
+    private int subjects = 100;
+    private int recordings = 500;
+    private int channels = 19;
+    private int samples = 256;
+    private double skew = 1.0;
+    private int noise = NOISE_GAUSSIAN;
+    private double amplitude = 50.0;
+    private double noiseLevel = 10.0;
+
+    /**
+     * Creates new generator
+     * @param dbparam parameters of target database
+     */
+    public EEGDataGenerator(DBParameters dbparam) {
+        this.dbparam = dbparam;
+    }
+
+    /**
+     * Runs generator from command line
+     * @param args arguments, see description of class
+     * @throws Exception if data can't be generated
+     */
+    public static void main(String[] args) throws Exception {
+        DBParameters dbparam = new DBParameters("org.hsqldb.jdbcDriver", "jdbc:hsqldb:file:eegdb;shutdown=true", "sa", "");
+        EEGDataGenerator generator = new EEGDataGenerator(dbparam);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("-driver")) {
+                dbparam.setDriver(value);
+            } else if (args[i].equals("-jdbc")) {
+                dbparam.setJdbc(value);
+            } else if (args[i].equals("-user")) {
+                dbparam.setUsername(value);
+            } else if (args[i].equals("-password")) {
+                dbparam.setPassword(value);
+            } else if (args[i].equals("-seed")) {
+                generator.setSeed(Long.parseLong(value));
+            } else if (args[i].equals("-experiments")) {
+                generator.setExperiments(Integer.parseInt(value));
+            } else if (args[i].equals("-subjects")) {
+                generator.setSubjects(Integer.parseInt(value));
+            } else if (args[i].equals("-recordings")) {
+                generator.setRecordings(Integer.parseInt(value));
+            } else if (args[i].equals("-channels")) {
+                generator.setChannels(Integer.parseInt(value));
+            } else if (args[i].equals("-samples")) {
+                generator.setSamples(Integer.parseInt(value));
+            } else if (args[i].equals("-skew")) {
+                generator.setSkew(Double.parseDouble(value));
+            } else if (args[i].equals("-noise")) {
+                generator.setNoise(value.equalsIgnoreCase("UNIFORM") ? NOISE_UNIFORM : NOISE_GAUSSIAN);
+            } else if (args[i].equals("-amplitude")) {
+                generator.setAmplitude(Double.parseDouble(value));
+            } else if (args[i].equals("-noiseLevel")) {
+                generator.setNoiseLevel(Double.parseDouble(value));
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        long start = System.currentTimeMillis();
+        long rows = generator.generate();
+        System.out.println("Generated " + rows + " rows in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Creates schema and fills it with generated data
+     * @return number of inserted rows
+     * @throws SQLException if error during writing into database happened
+     */
+    public long generate() throws SQLException {
+        if (dbparam.getDriver() != null) {
+            Database.registerJDBCDriverIfPresent(dbparam.getDriver());
+        }
+        Connection connection = DriverManager.getConnection(dbparam.getJdbc(), dbparam.getUsername(), dbparam.getPassword());
+        try {
+            createSchema(connection);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Random random = new Random(seed);
+                long rows = insertExperiments(connection, random);
+                rows += insertSubjects(connection, random);
+                rows += insertRecordings(connection, random);
+                return rows;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Drops existing tables of schema and creates new ones
+     * @param connection database connection
+     * @throws SQLException if tables can't be created
+     */
+    public void createSchema(Connection connection) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            for (String table : TABLES) {
+                try {
+                    statement.executeUpdate("DROP TABLE " + table);
+                } catch (SQLException e) {
+                    // table doesn't exist yet
+                }
+            }
+            statement.executeUpdate("CREATE TABLE EXPERIMENT (EXPERIMENT_ID INTEGER NOT NULL PRIMARY KEY, "
+                    + "TITLE VARCHAR(100) NOT NULL, PARADIGM VARCHAR(50), START_TIME TIMESTAMP, DESCRIPTION VARCHAR(255))");
+            statement.executeUpdate("CREATE TABLE SUBJECT (SUBJECT_ID INTEGER NOT NULL PRIMARY KEY, "
+                    + "CODE VARCHAR(20) NOT NULL, GENDER CHAR(1), BIRTH_YEAR INTEGER, LEFT_HANDED CHAR(1))");
+            statement.executeUpdate("CREATE TABLE RECORDING (RECORDING_ID INTEGER NOT NULL PRIMARY KEY, "
+                    + "EXPERIMENT_ID INTEGER NOT NULL REFERENCES EXPERIMENT (EXPERIMENT_ID), "
+                    + "SUBJECT_ID INTEGER NOT NULL REFERENCES SUBJECT (SUBJECT_ID), "
+                    + "RECORDED_AT TIMESTAMP, SAMPLING_RATE INTEGER, DURATION DOUBLE PRECISION, NOTE VARCHAR(255))");
+            statement.executeUpdate("CREATE TABLE CHANNEL (CHANNEL_ID INTEGER NOT NULL PRIMARY KEY, "
+                    + "RECORDING_ID INTEGER NOT NULL REFERENCES RECORDING (RECORDING_ID), "
+                    + "ELECTRODE VARCHAR(10), UNIT VARCHAR(10), FREQUENCY DOUBLE PRECISION)");
+            statement.executeUpdate("CREATE TABLE SAMPLE (SAMPLE_ID BIGINT NOT NULL PRIMARY KEY, "
+                    + "CHANNEL_ID INTEGER NOT NULL REFERENCES CHANNEL (CHANNEL_ID), "
+                    + "SAMPLE_INDEX INTEGER NOT NULL, SAMPLE_VALUE DOUBLE PRECISION)");
+        } finally {
+            statement.close();
+        }
+    }
+
+    private long insertExperiments(Connection connection, Random random) throws SQLException {
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO EXPERIMENT VALUES (?, ?, ?, ?, ?)");
+        try {
+            for (int i = 1; i <= experiments; i++) {
+                String paradigm = PARADIGMS[random.nextInt(PARADIGMS.length)];
+                insert.setInt(1, i);
+                insert.setString(2, "Experiment " + i + " - " + paradigm);
+                insert.setString(3, paradigm);
+                insert.setTimestamp(4, timestamp(random));
+                if (random.nextInt(4) == 0) {
+                    insert.setNull(5, Types.VARCHAR);
+                } else {
+                    insert.setString(5, "Study of " + paradigm + " responses, group " + (1 + random.nextInt(5)));
+                }
+                add(connection, insert, i);
+            }
+            flush(connection, insert);
+        } finally {
+            insert.close();
+        }
+        return experiments;
+    }
+
+    private long insertSubjects(Connection connection, Random random) throws SQLException {
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO SUBJECT VALUES (?, ?, ?, ?, ?)");
+        try {
+            for (int i = 1; i <= subjects; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "S" + String.format("%06d", Integer.valueOf(i)));
+                insert.setString(3, random.nextBoolean() ? "M" : "F");
+                insert.setInt(4, 1940 + random.nextInt(65));
+                insert.setString(5, random.nextInt(10) == 0 ? "Y" : "N");
+                add(connection, insert, i);
+            }
+            flush(connection, insert);
+        } finally {
+            insert.close();
+        }
+        return subjects;
+    }
+
+    /**
+     * Inserts recordings and their channels and samples
+     */
+    private long insertRecordings(Connection connection, Random random) throws SQLException {
+        double[] subjectWeights = zipf(subjects, skew);
+        PreparedStatement recording = connection.prepareStatement("INSERT INTO RECORDING VALUES (?, ?, ?, ?, ?, ?, ?)");
+        PreparedStatement channel = connection.prepareStatement("INSERT INTO CHANNEL VALUES (?, ?, ?, ?, ?)");
+        PreparedStatement sample = connection.prepareStatement("INSERT INTO SAMPLE VALUES (?, ?, ?, ?)");
+        long rows = 0;
+        int channelId = 0;
+        long sampleId = 0;
+        try {
+            for (int r = 1; r <= recordings; r++) {
+                int samplingRate = random.nextBoolean() ? 256 : 512;
+                recording.setInt(1, r);
+                recording.setInt(2, 1 + random.nextInt(Math.max(1, experiments)));
+                recording.setInt(3, 1 + pick(subjectWeights, random));
+                recording.setTimestamp(4, timestamp(random));
+                recording.setInt(5, samplingRate);
+                recording.setDouble(6, (double) samples / samplingRate);
+                if (random.nextInt(3) == 0) {
+                    recording.setString(7, "artifacts: " + (random.nextBoolean() ? "eye blinks" : "muscle"));
+                } else {
+                    recording.setNull(7, Types.VARCHAR);
+                }
+                recording.addBatch();
+                rows++;
+                for (int c = 0; c < channels; c++) {
+                    channelId++;
+                    double[] band = BANDS[random.nextInt(BANDS.length)];
+                    double frequency = band[0] + random.nextDouble() * (band[1] - band[0]);
+                    double phase = random.nextDouble() * 2 * Math.PI;
+                    channel.setInt(1, channelId);
+                    channel.setInt(2, r);
+                    channel.setString(3, ELECTRODES[c % ELECTRODES.length] + (c < ELECTRODES.length ? "" : "-" + c / ELECTRODES.length));
+                    channel.setString(4, "uV");
+                    channel.setDouble(5, Math.round(frequency * 100) / 100.0);
+                    channel.addBatch();
+                    rows++;
+                    for (int s = 0; s < samples; s++) {
+                        sampleId++;
+                        double value = amplitude * Math.sin(2 * Math.PI * frequency * s / samplingRate + phase) + noise(random);
+                        sample.setLong(1, sampleId);
+                        sample.setInt(2, channelId);
+                        sample.setInt(3, s);
+                        sample.setDouble(4, Math.round(value * 1000) / 1000.0);
+                        sample.addBatch();
+                        rows++;
+                        if (sampleId % BATCH_SIZE == 0) {
+                            // parent rows have to be inserted before samples referencing them
+                            recording.executeBatch();
+                            channel.executeBatch();
+                            flush(connection, sample);
+                        }
+                    }
+                }
+                if (r % BATCH_SIZE == 0) {
+                    recording.executeBatch();
+                    channel.executeBatch();
+                    flush(connection, sample);
+                }
+            }
+            recording.executeBatch();
+            channel.executeBatch();
+            flush(connection, sample);
+        } finally {
+            sample.close();
+            channel.close();
+            recording.close();
+        }
+        return rows;
+    }
+
+    private double noise(Random random) {
+        if (noise == NOISE_UNIFORM) {
+            return (random.nextDouble() * 2 - 1) * noiseLevel;
+        }
+        return random.nextGaussian() * noiseLevel;
+    }
+
+    private static Timestamp timestamp(Random random) {
+        // 2005-01-01 + up to 20 years, whole seconds
+        long seconds = 1104537600L + (long) (random.nextDouble() * 20 * 365 * 24 * 3600);
+        return new Timestamp(seconds * 1000);
+    }
+
+    /**
+     * Returns cumulative weights of Zipf distribution
+     * @param n number of items
+     * @param exponent skew, 0 gives uniform distribution
+     * @return cumulative weights, the last one is 1
+     */
+    static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[Math.max(1, n)];
+        double sum = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Picks index by cumulative weights
+     */
+    private static int pick(double[] cumulative, Random random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void add(Connection connection, PreparedStatement insert, int row) throws SQLException {
+        insert.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            flush(connection, insert);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    /**
+     * returns number of generated rows of all tables
+     * @return expected number of rows
+     */
+    public long getRowCount() {
+        return experiments + subjects + (long) recordings * (1 + channels + (long) channels * samples);
+    }
+
+    /**
+     * returns seed of generator
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * set seed of generator, the same seed and parameters give the same data
+     * @param seed seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * returns number of experiments
+     * @return number of rows of table EXPERIMENT
+     */
+    public int getExperiments() {
+        return experiments;
+    }
+
+    /**
+     * set number of experiments
+     * @param experiments number of rows of table EXPERIMENT, at least 1
+     */
+    public void setExperiments(int experiments) {
+        this.experiments = Math.max(1, experiments);
+    }
+
+    /**
+     * returns number of subjects
+     * @return number of rows of table SUBJECT
+     */
+    public int getSubjects() {
+        return subjects;
+    }
+
+    /**
+     * set number of subjects
+     * @param subjects number of rows of table SUBJECT, at least 1
+     */
+    public void setSubjects(int subjects) {
+        this.subjects = Math.max(1, subjects);
+    }
+
+    /**
+     * returns number of recordings
+     * @return number of rows of table RECORDING
+     */
+    public int getRecordings() {
+        return recordings;
+    }
+
+    /**
+     * set number of recordings
+     * @param recordings number of rows of table RECORDING
+     */
+    public void setRecordings(int recordings) {
+        this.recordings = Math.max(0, recordings);
+    }
+
+    /**
+     * returns number of channels of every recording
+     * @return number of channels
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * set number of channels of every recording
+     * @param channels number of channels
+     */
+    public void setChannels(int channels) {
+        this.channels = Math.max(0, channels);
+    }
+
+    /**
+     * returns number of samples of every channel
+     * @return number of samples
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * set number of samples of every channel
+     * @param samples number of samples
+     */
+    public void setSamples(int samples) {
+        this.samples = Math.max(0, samples);
+    }
+
+    /**
+     * returns skew of distribution of recordings among subjects
+     * @return exponent of Zipf distribution
+     */
+    public double getSkew() {
+        return skew;
+    }
+
+    /**
+     * set skew of distribution of recordings among subjects
+     * @param skew exponent of Zipf distribution, 0 for uniform distribution
+     */
+    public void setSkew(double skew) {
+        this.skew = Math.max(0, skew);
+    }
+
+    /**
+     * returns distribution of noise of samples
+     * @return NOISE_GAUSSIAN or NOISE_UNIFORM
+     */
+    public int getNoise() {
+        return noise;
+    }
+
+    /**
+     * set distribution of noise of samples
+     * @param noise NOISE_GAUSSIAN or NOISE_UNIFORM
+     */
+    public void setNoise(int noise) {
+        this.noise = noise;
+    }
+
+    /**
+     * returns amplitude of signal
+     * @return amplitude in microvolts
+     */
+    public double getAmplitude() {
+        return amplitude;
+    }
+
+    /**
+     * set amplitude of signal
+     * @param amplitude amplitude in microvolts
+     */
+    public void setAmplitude(double amplitude) {
+        this.amplitude = amplitude;
+    }
+
+    /**
+     * returns level of noise
+     * @return standard deviation (Gaussian) or maximal deviation (uniform) in microvolts
+     */
+    public double getNoiseLevel() {
+        return noiseLevel;
+    }
+
+    /**
+     * set level of noise
+     * @param noiseLevel standard deviation (Gaussian) or maximal deviation (uniform) in microvolts
+     */
+    public void setNoiseLevel(double noiseLevel) {
+        this.noiseLevel = Math.max(0, noiseLevel);
+    }
+}
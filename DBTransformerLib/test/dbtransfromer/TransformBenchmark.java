@@ -0,0 +1,372 @@
+package dbtransfromer;
+
+import de.fuberlin.wiwiss.d2rq.map.Database;
+import de.fuberlin.wiwiss.d2rq.mapgen.MappingGenerator;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark of transformation. For every data size it fills benchmark table of given database
+ * (embedded database like HSQLDB or Derby can be used, driver has to be on classpath) and
+ * measures mapping generation, {@link DBTransformerImpl#transform(DBParameters, String)}
+ * and {@link DBTransformerImpl#convert(int, byte[])} of its result for every output format. Every benchmark
+ * is run in warmup iterations first, then in measured iterations; mean time, throughput
+ * (rows/s, triples/s) and memory allocated per triple are reported. Database should contain
+ * no other tables, because mapping is generated for whole database.
+ * <p>
+ * Usage: TransformBenchmark [-driver class] [-jdbc url] [-user name] [-password password]
+ * [-sizes 1000,10000] [-warmup n] [-iterations n] [-formats RDFXML,TURTLE,...] [-csv file]
+ * <p>
+ * Benchmark is started by ant target "benchmark" of DBTransformerLib.
+ * Last Modified 17.10.2026
+ */
+public class TransformBenchmark {
+
+    /**
+     * Name of benchmark table
+     */
+    public static final String TABLE = "BENCH_MEASUREMENT";
+    private static final String BASE_URI = "http://localhost/benchmark/";
+    private static final String[] FORMAT_NAMES = {"RDFXML", "OWLXML", "TURTLE", "DLSYNTAX", "OWLFUNCTIONAL",
+        "DLSYNTAXHTML", "KRSS", "KRSS2", "LATEX", "LATEXAXIOMSLIST", "MANCHESTER", "OBO", "PREFIXOWL", "NTRIPLES", "BINARY"};
+    private final DBParameters dbparam;
+    private final File workDirectory;
+    private int warmupIterations = 2;
+    private int iterations = 5;
+    private PrintStream out = System.out;
+    private PrintStream csv = null;
+
+    /**
+     * Creates new benchmark
+     * @param dbparam parameters of benchmark database, its benchmark table is replaced
+     * @param workDirectory directory for converted files
+     */
+    public TransformBenchmark(DBParameters dbparam, File workDirectory) {
+        this.dbparam = dbparam;
+        this.workDirectory = workDirectory;
+    }
+
+    /**
+     * Runs benchmark from command line
+     * @param args arguments, see description of class
+     * @throws Exception if benchmark can't be run
+     */
+    public static void main(String[] args) throws Exception {
+        DBParameters dbparam = new DBParameters("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:dbtransformer", "sa", "");
+        String sizes = "1000,10000,100000";
+        String formats = null;
+        String csvFile = null;
+        int warmup = 2;
+        int iterations = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("-driver")) {
+                dbparam.setDriver(value);
+            } else if (args[i].equals("-jdbc")) {
+                dbparam.setJdbc(value);
+            } else if (args[i].equals("-user")) {
+                dbparam.setUsername(value);
+            } else if (args[i].equals("-password")) {
+                dbparam.setPassword(value);
+            } else if (args[i].equals("-sizes")) {
+                sizes = value;
+            } else if (args[i].equals("-warmup")) {
+                warmup = Integer.parseInt(value);
+            } else if (args[i].equals("-iterations")) {
+                iterations = Integer.parseInt(value);
+            } else if (args[i].equals("-formats")) {
+                formats = value;
+            } else if (args[i].equals("-csv")) {
+                csvFile = value;
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        File workDirectory = new File(System.getProperty("java.io.tmpdir"), "dbtransformer-benchmark");
+        if (!workDirectory.isDirectory() && !workDirectory.mkdirs()) {
+            throw new IOException("Can't create directory " + workDirectory);
+        }
+        TransformBenchmark benchmark = new TransformBenchmark(dbparam, workDirectory);
+        benchmark.setWarmupIterations(warmup);
+        benchmark.setIterations(iterations);
+        if (csvFile != null) {
+            benchmark.setCsv(new PrintStream(new FileOutputStream(csvFile), true, "UTF-8"));
+        }
+        List<Integer> rows = new ArrayList<Integer>();
+        for (String size : sizes.split(",")) {
+            rows.add(Integer.valueOf(size.trim()));
+        }
+        try {
+            benchmark.run(rows, formats == null ? FORMAT_NAMES : formats.split(","));
+        } finally {
+            if (benchmark.csv != null) {
+                benchmark.csv.close();
+            }
+        }
+    }
+
+    /**
+     * Runs all benchmarks for all data sizes
+     * @param sizes numbers of rows of benchmark table
+     * @param formats names of output formats of conversion (names of TYPE_ constants without prefix)
+     * @throws Exception if benchmark failed
+     */
+    public void run(List<Integer> sizes, String[] formats) throws Exception {
+        if (csv != null) {
+            csv.println("benchmark,rows,triples,mean_ms,stddev_ms,rows_per_s,triples_per_s,bytes_per_triple");
+        }
+        out.println(String.format(Locale.US, "%-26s %9s %10s %11s %12s %13s %10s",
+                "benchmark", "rows", "triples", "time [ms]", "rows/s", "triples/s", "B/triple"));
+        for (Integer size : sizes) {
+            fill(size.intValue());
+            runMappingGeneration(size.intValue());
+            byte[] rdf = runTransform(size.intValue());
+            for (String format : formats) {
+                runConvert(format.trim(), size.intValue(), rdf);
+            }
+        }
+    }
+
+    /**
+     * Replaces benchmark table by table with given number of rows
+     * @param rows number of rows
+     * @throws SQLException if table can't be created
+     */
+    public void fill(int rows) throws SQLException {
+        if (dbparam.getDriver() != null) {
+            Database.registerJDBCDriverIfPresent(dbparam.getDriver());
+        }
+        Connection connection = DriverManager.getConnection(dbparam.getJdbc(), dbparam.getUsername(), dbparam.getPassword());
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                try {
+                    statement.executeUpdate("DROP TABLE " + TABLE);
+                } catch (SQLException e) {
+                    // table doesn't exist yet
+                }
+                statement.executeUpdate("CREATE TABLE " + TABLE + " (ID INTEGER NOT NULL PRIMARY KEY, "
+                        + "SENSOR VARCHAR(32), CHANNEL INTEGER, VAL DECIMAL(12,4), NOTE VARCHAR(128))");
+            } finally {
+                statement.close();
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES (?, ?, ?, ?, ?)");
+            try {
+                for (int i = 0; i < rows; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "sensor-" + (i % 64));
+                    insert.setInt(3, i % 16);
+                    insert.setBigDecimal(4, BigDecimal.valueOf((i * 7919L) % 1000000, 4));
+                    if (i % 10 == 0) {
+                        insert.setString(5, "calibration \"" + i + "\"");
+                    } else {
+                        insert.setNull(5, Types.VARCHAR);
+                    }
+                    insert.addBatch();
+                    if (i % 1000 == 999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } finally {
+                insert.close();
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Measures generation of D2RQ mapping of benchmark database
+     */
+    private void runMappingGeneration(int rows) {
+        long[] times = new long[iterations];
+        long allocated = 0;
+        for (int i = -warmupIterations; i < iterations; i++) {
+            MappingGenerator gen = new MappingGenerator(dbparam.getJdbc());
+            if (dbparam.getUsername() != null) {
+                gen.setDatabaseUser(dbparam.getUsername());
+            }
+            if (dbparam.getPassword() != null) {
+                gen.setDatabasePassword(dbparam.getPassword());
+            }
+            if (dbparam.getDriver() != null) {
+                gen.setJDBCDriverClass(dbparam.getDriver());
+            }
+            long memory = ExtractionStatistics.currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            gen.mappingModel(BASE_URI, System.err).close();
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+                allocated += allocatedSince(memory);
+            }
+        }
+        report("mapping", rows, 0, times, allocated);
+    }
+
+    /**
+     * Measures transformation into N-Triples
+     * @return N-Triples of the last iteration
+     */
+    private byte[] runTransform(int rows) throws Exception {
+        long[] times = new long[iterations];
+        long allocated = 0;
+        long triples = 0;
+        byte[] rdf = null;
+        for (int i = -warmupIterations; i < iterations; i++) {
+            DBTransformerImpl transformer = new DBTransformerImpl();
+            long start = System.nanoTime();
+            byte[] result = transformer.transform(dbparam, BASE_URI);
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+                ExtractionStatistics statistics = transformer.getStatistics();
+                triples = statistics.getTriples();
+                allocated = statistics.getAllocatedBytes() < 0 || allocated < 0 ? -1 : allocated + statistics.getAllocatedBytes();
+            }
+            rdf = result;
+        }
+        report("transform", rows, triples, times, allocated);
+        return rdf;
+    }
+
+    /**
+     * Measures conversion of N-Triples into output format
+     */
+    private void runConvert(String format, int rows, byte[] rdf) throws Exception {
+        DBTransformerImpl transformer = new DBTransformerImpl();
+        int type;
+        try {
+            type = transformer.getClass().getField("TYPE_" + format).getInt(transformer);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Unknown output format " + format);
+        }
+        File output = new File(workDirectory, "convert-" + format.toLowerCase(Locale.US));
+        transformer.setOutput(output.getPath());
+        long triples = countLines(rdf);
+        long[] times = new long[iterations];
+        long allocated = 0;
+        for (int i = -warmupIterations; i < iterations; i++) {
+            long memory = ExtractionStatistics.currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            try {
+                transformer.convert(type, rdf);
+            } catch (Exception e) {
+                out.println(String.format(Locale.US, "%-26s %9d failed: %s", "convert " + format, Integer.valueOf(rows), e));
+                return;
+            }
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+                long bytes = allocatedSince(memory);
+                allocated = allocated < 0 || bytes < 0 ? -1 : allocated + bytes;
+            }
+        }
+        output.delete();
+        report("convert " + format, rows, triples, times, allocated);
+    }
+
+    private static long allocatedSince(long memory) {
+        long now = ExtractionStatistics.currentThreadAllocatedBytes();
+        return memory < 0 || now < 0 ? -1 : now - memory;
+    }
+
+    private static long countLines(byte[] rdf) {
+        long lines = 0;
+        for (byte b : rdf) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Prints result of one benchmark
+     */
+    private void report(String name, int rows, long triples, long[] times, long allocated) {
+        double mean = 0;
+        for (long time : times) {
+            mean += time / 1e6;
+        }
+        mean /= Math.max(1, times.length);
+        double variance = 0;
+        for (long time : times) {
+            variance += (time / 1e6 - mean) * (time / 1e6 - mean);
+        }
+        double stddev = Math.sqrt(variance / Math.max(1, times.length - 1));
+        double rowsPerSecond = mean > 0 ? rows * 1000 / mean : 0;
+        double triplesPerSecond = mean > 0 ? triples * 1000 / mean : 0;
+        long bytesPerTriple = allocated < 0 || triples == 0 ? -1 : allocated / (triples * Math.max(1, times.length));
+        out.println(String.format(Locale.US, "%-26s %9d %10d %6.1f±%-4.1f %12.0f %13.0f %10d",
+                name, Integer.valueOf(rows), Long.valueOf(triples), Double.valueOf(mean), Double.valueOf(stddev),
+                Double.valueOf(rowsPerSecond), Double.valueOf(triplesPerSecond), Long.valueOf(bytesPerTriple)));
+        if (csv != null) {
+            csv.println(String.format(Locale.US, "%s,%d,%d,%.3f,%.3f,%.0f,%.0f,%d",
+                    name, Integer.valueOf(rows), Long.valueOf(triples), Double.valueOf(mean), Double.valueOf(stddev),
+                    Double.valueOf(rowsPerSecond), Double.valueOf(triplesPerSecond), Long.valueOf(bytesPerTriple)));
+        }
+    }
+
+    /**
+     * returns number of warmup iterations
+     * @return number of iterations which aren't measured
+     */
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    /**
+     * set number of warmup iterations
+     * @param warmupIterations number of iterations which aren't measured
+     */
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = Math.max(0, warmupIterations);
+    }
+
+    /**
+     * returns number of measured iterations
+     * @return number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * set number of measured iterations
+     * @param iterations number of iterations, at least 1
+     */
+    public void setIterations(int iterations) {
+        this.iterations = Math.max(1, iterations);
+    }
+
+    /**
+     * set stream for results
+     * @param out stream for human readable results
+     */
+    public void setOut(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * set stream for results in CSV format
+     * @param csv stream for CSV results, null disables CSV
+     */
+    public void setCsv(PrintStream csv) {
+        this.csv = csv;
+    }
+}